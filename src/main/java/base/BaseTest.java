@@ -3,24 +3,45 @@ package base;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import driver.DriverCreationMetrics;
 import driver.DriverManager;
+import driver.DriverPool;
+import driver.DriverPrefetcher;
+import driver.DriverScope;
+import driver.DriverServiceRegistry;
+import driver.GridAdmissionController;
+import driver.GridEndpointBalancer;
+import driver.LazyDriver;
+import driver.RemoteClientConfig;
 import org.openqa.selenium.WebDriver;
+import org.testng.IConfigurable;
+import org.testng.IConfigureCallBack;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
+import pages.CachingFieldDecorator;
+import pages.PageRoutes;
+import utils.ArtifactStore;
 import utils.ConfigReader;
+import utils.ExecutionContext;
 import utils.ExtentReportManager;
 import utils.LogUtil;
 import utils.ScreenShotUtil;
+import utils.WaitStatistics;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
-public class BaseTest {
+public class BaseTest implements IHookable, IConfigurable {
     protected WebDriver driver;
     protected ExtentTest extentTest;
     private static final ExtentReports extentReports = ExtentReportManager.getInstance();
+    // Invocation whose @BeforeMethod/@AfterMethod configurations run on this thread; set from
+    // beforeMethod until afterMethod, and only bound while a configuration method runs
+    private static final ThreadLocal<ExecutionContext> configuredInvocation = new ThreadLocal<>();
     
     @BeforeSuite
     public void beforeSuite(ITestContext context) {
@@ -47,13 +68,22 @@ public class BaseTest {
         extentTest = extentReports.createTest(className + " - " + testName);
         extentTest.assignCategory(className);
         
-        // Get WebDriver instance
-        driver = DriverManager.getDriver();
+        // Driver, report node and metrics belong to this invocation, not to the worker thread
+        ExecutionContext executionContext = ExecutionContext.forResult(result);
+        executionContext.setReportNode(extentTest);
+        configuredInvocation.set(executionContext);
         
-        // Navigate to base URL
-        String baseUrl = ConfigReader.getBaseUrl();
-        LogUtil.logPageNavigation(baseUrl);
-        driver.get(baseUrl);
+        // Get WebDriver instance for the configured lifecycle scope
+        DriverScope scope = DriverManager.getScope(result.getTestClass().getRealClass());
+        String scopeName = getScopeName(scope, result);
+        String startUrl = getStartUrl(method, result.getTestClass().getRealClass());
+        
+        if (ConfigReader.getBoolean("driver.lazy.enabled", false)) {
+            // Browser starts (and navigates to the start page) on the first WebDriver call
+            driver = LazyDriver.create(() -> openSession(executionContext, scope, scopeName, startUrl));
+        } else {
+            driver = openSession(executionContext, scope, scopeName, startUrl);
+        }
         
         // Log test parameters if any
         if (result.getParameters().length > 0) {
@@ -64,6 +94,30 @@ public class BaseTest {
         }
     }
     
+    /**
+     * Bind the invocation's execution context while the test method body runs
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        ExecutionContext.runWith(ExecutionContext.forResult(testResult), () -> callBack.runTestMethod(testResult));
+    }
+    
+    /**
+     * Bind the invocation's execution context while subclass @BeforeMethod/@AfterMethod methods run,
+     * so DriverManager.getDriver() works there as it does in the test body
+     */
+    @Override
+    public void run(IConfigureCallBack callBack, ITestResult testResult) {
+        ExecutionContext executionContext = configuredInvocation.get();
+        boolean methodConfiguration = testResult.getMethod().isBeforeMethodConfiguration()
+                || testResult.getMethod().isAfterMethodConfiguration();
+        if (methodConfiguration && executionContext != null && !executionContext.isClosed()) {
+            ExecutionContext.runWith(executionContext, () -> callBack.runConfigurationMethod(testResult));
+        } else {
+            callBack.runConfigurationMethod(testResult);
+        }
+    }
+    
     @AfterMethod
     public void afterMethod(ITestResult result) {
         String testName = result.getName();
@@ -77,24 +131,45 @@ public class BaseTest {
         } else if (result.getStatus() == ITestResult.FAILURE) {
             extentTest.log(Status.FAIL, "Test failed: " + result.getThrowable().getMessage());
             
-            // Capture screenshot on failure
-            try {
-                String screenshotPath = ScreenShotUtil.capture(driver, testName);
-                extentTest.addScreenCaptureFromPath(screenshotPath);
-                LogUtil.logScreenshot(screenshotPath);
-            } catch (Exception e) {
-                LogUtil.error("Failed to capture screenshot", e);
+            // Capture screenshot on failure (only if a browser session was actually started)
+            if (LazyDriver.isStarted(driver)) {
+                try {
+                    String screenshotPath = ScreenShotUtil.capture(driver, testName);
+                    extentTest.addScreenCaptureFromPath(screenshotPath);
+                    LogUtil.logScreenshot(screenshotPath);
+                } catch (Exception e) {
+                    LogUtil.error("Failed to capture screenshot", e);
+                }
             }
         } else if (result.getStatus() == ITestResult.SKIP) {
             extentTest.log(Status.SKIP, "Test skipped: " + result.getThrowable().getMessage());
         }
         
-        // Quit driver
-        DriverManager.quitDriver();
+        ExecutionContext executionContext = ExecutionContext.forResult(result);
+        Long gridQueueWait = executionContext.getMetrics().get(GridAdmissionController.QUEUE_WAIT_METRIC);
+        if (gridQueueWait != null) {
+            ExtentTest reportNode = executionContext.getReportNode() != null ? executionContext.getReportNode() : extentTest;
+            reportNode.log(Status.INFO, "Grid queue wait: " + gridQueueWait + "ms");
+        }
+        
+        // Quit driver, or reset it when it is shared beyond this method
+        try {
+            DriverScope scope = DriverManager.getScope(result.getTestClass().getRealClass());
+            DriverManager.endMethod(executionContext, scope, getScopeName(scope, result));
+        } finally {
+            executionContext.close();
+            configuredInvocation.remove();
+        }
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        DriverManager.quitScope(DriverScope.CLASS, getClass().getName());
     }
     
     @AfterTest
     public void afterTest(ITestContext context) {
+        DriverManager.quitScope(DriverScope.TEST, context.getName());
         LogUtil.info("=== TEST COMPLETED: " + context.getName() + " ===");
     }
     
@@ -102,6 +177,36 @@ public class BaseTest {
     public void afterSuite(ITestContext context) {
         LogUtil.info("=== TEST SUITE COMPLETED: " + context.getSuite().getName() + " ===");
         
+        // Release suite-scoped and pooled browser sessions
+        DriverManager.quitAllScopes();
+        if (DriverPool.isEnabled()) {
+            DriverPool.logStatistics();
+            DriverPool.shutdown();
+        }
+        if (DriverPrefetcher.isEnabled()) {
+            DriverPrefetcher.logStatistics();
+            DriverPrefetcher.shutdown();
+        }
+        if (DriverServiceRegistry.isEnabled()) {
+            DriverServiceRegistry.shutdown();
+        }
+        if (ConfigReader.isGridEnabled()) {
+            GridEndpointBalancer.logStatistics();
+        }
+        if (GridAdmissionController.isEnabled()) {
+            GridAdmissionController.logStatistics();
+            GridAdmissionController.shutdown();
+        }
+        RemoteClientConfig.shutdown();
+        ArtifactStore.logStatistics();
+        DriverCreationMetrics.writeSummary();
+        RemoteClientConfig.writeSummary();
+        WaitStatistics.save();
+        CachingFieldDecorator.logStatistics();
+        if (ExecutionContext.getOpenCount() > 0) {
+            LogUtil.warn(ExecutionContext.getOpenCount() + " test execution context(s) were never closed");
+        }
+        
         // Flush ExtentReports
         extentReports.flush();
         
@@ -109,6 +214,45 @@ public class BaseTest {
         generateAllureReport();
     }
     
+    private WebDriver openSession(ExecutionContext executionContext, DriverScope scope, String scopeName, String startUrl) {
+        // Bound so that session creation (e.g. Grid queue wait) is attributed to this invocation
+        return ExecutionContext.callWith(executionContext, () -> {
+            WebDriver session = DriverManager.getDriver(executionContext, scope, scopeName);
+            
+            // Navigate to the start page
+            LogUtil.logPageNavigation(startUrl);
+            session.get(startUrl);
+            return session;
+        });
+    }
+    
+    private String getStartUrl(Method method, Class<?> testClass) {
+        StartPage startPage = method.getAnnotation(StartPage.class);
+        if (startPage == null) {
+            startPage = testClass.getAnnotation(StartPage.class);
+        }
+        if (startPage == null) {
+            return ConfigReader.getBaseUrl();
+        }
+        if (startPage.page() != Object.class) {
+            return PageRoutes.urlFor(startPage.page());
+        }
+        return PageRoutes.urlFor(startPage.value());
+    }
+    
+    private String getScopeName(DriverScope scope, ITestResult result) {
+        switch (scope) {
+            case CLASS:
+                return result.getTestClass().getRealClass().getName();
+            case TEST:
+                return result.getTestContext().getName();
+            case SUITE:
+                return result.getTestContext().getSuite().getName();
+            default:
+                return result.getName();
+        }
+    }
+    
     private String getTestStatus(ITestResult result) {
         switch (result.getStatus()) {
             case ITestResult.SUCCESS:
@@ -134,21 +278,30 @@ public class BaseTest {
     // Utility methods for tests
     protected void logStep(String step) {
         LogUtil.logStep(step);
-        extentTest.log(Status.INFO, step);
+        getReportNode().log(Status.INFO, step);
     }
     
     protected void logInfo(String message) {
         LogUtil.info(message);
-        extentTest.log(Status.INFO, message);
+        getReportNode().log(Status.INFO, message);
     }
     
     protected void logWarning(String message) {
         LogUtil.warn(message);
-        extentTest.log(Status.WARNING, message);
+        getReportNode().log(Status.WARNING, message);
     }
     
     protected void logError(String message) {
         LogUtil.error(message);
-        extentTest.log(Status.FAIL, message);
+        getReportNode().log(Status.FAIL, message);
+    }
+    
+    // Report node of the running invocation; the field may belong to a parallel method of the same instance
+    private ExtentTest getReportNode() {
+        ExecutionContext executionContext = ExecutionContext.current();
+        if (executionContext != null && executionContext.getReportNode() != null) {
+            return executionContext.getReportNode();
+        }
+        return extentTest;
     }
 }
@@ -0,0 +1,19 @@
+package base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Page a test starts on, instead of base.url. Use a route name from {@link pages.PageRoutes}
+ * ({@code @StartPage("web-tables")}) or a registered page object ({@code @StartPage(page = ElementsPage.class)}).
+ * A method-level annotation wins over one on the class.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StartPage {
+    String value() default "";
+
+    Class<?> page() default Object.class;
+}
@@ -0,0 +1,318 @@
+package driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.ConfigReader;
+import utils.LogUtil;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Chrome user-data directory that is warmed up once (HTTP cache and V8 code cache primed by
+ * visiting the application) and then cloned for every session, so the first page load of a
+ * session is served from disk instead of re-downloading and re-compiling static assets.
+ *
+ * Cache entry files are hard-linked into the clone and made read-only in the template. Chrome
+ * cannot write through such a link, so it replaces the entry with a new file of its own and the
+ * template is never modified. Files Chrome updates in place (cache indexes, block files) and
+ * everything else (preferences, SQLite databases) are copied, as is every file when the read-only
+ * bit is not enforced (e.g. running as root). Clones live in a directory per JVM guarded by a
+ * lock file, so only clones of JVMs that are gone are cleaned up.
+ */
+public class ChromeProfileTemplate {
+    private static final String READY_MARKER = ".template-ready";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final List<String> LINKED_DIRECTORIES = Arrays.asList(
+            "Cache", "Code Cache", "GPUCache", "GrShaderCache", "ShaderCache");
+    // Chrome refuses to start on a profile that still holds another instance's locks
+    private static final List<String> LOCK_FILES = Arrays.asList(
+            "SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile");
+
+    private static final Map<WebDriver, Path> clones = new ConcurrentHashMap<>();
+    private static final AtomicInteger linkedFiles = new AtomicInteger();
+    private static final AtomicInteger copiedFiles = new AtomicInteger();
+    private static volatile Path template;
+    private static Path processClones;
+    // Held until the JVM exits; tells other JVMs this process's clones are in use
+    private static FileLock processLock;
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("driver.profile.template.enabled", false);
+    }
+
+    /**
+     * Clone the warmed template into a fresh user-data directory for one session, building the
+     * template first if needed
+     */
+    public static Path cloneForSession(ChromeOptions sessionOptions) {
+        Path source = getTemplate(sessionOptions);
+        long start = System.currentTimeMillis();
+        Path clone = null;
+        try {
+            clone = getProcessClonesDirectory().resolve(UUID.randomUUID().toString());
+            copyTree(source, clone);
+        } catch (IOException e) {
+            if (clone != null) {
+                delete(clone);
+            }
+            throw new RuntimeException("Failed to clone Chrome profile template", e);
+        }
+        LogUtil.debug("Cloned Chrome profile template to " + clone + " in " + (System.currentTimeMillis() - start) + "ms");
+        return clone;
+    }
+
+    /**
+     * Remember which clone a session runs on so it is deleted when the session quits
+     */
+    public static void attach(WebDriver driver, Path clone) {
+        clones.put(driver, clone);
+    }
+
+    /**
+     * Delete the clone used by a session that has been quit
+     */
+    public static void release(WebDriver driver) {
+        Path clone = clones.remove(driver);
+        if (clone != null) {
+            delete(clone);
+        }
+    }
+
+    /**
+     * Delete a clone whose session could not be started
+     */
+    public static void discard(Path clone) {
+        delete(clone);
+    }
+
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("linkedFiles", linkedFiles.get());
+        stats.put("copiedFiles", copiedFiles.get());
+        stats.put("activeClones", clones.size());
+        return stats;
+    }
+
+    /**
+     * Build (or rebuild, once it is older than driver.profile.template.max.age.hours) the template profile
+     */
+    static synchronized Path getTemplate(ChromeOptions sessionOptions) {
+        if (template != null) {
+            return template;
+        }
+        Path directory = Paths.get(ConfigReader.get("driver.profile.template.dir", "target/browser-profiles/chrome-template"));
+        Path marker = directory.resolve(READY_MARKER);
+        long maxAgeMs = TimeUnit.HOURS.toMillis(ConfigReader.getInt("driver.profile.template.max.age.hours", 24));
+        try {
+            if (Files.exists(marker) && System.currentTimeMillis() - Files.getLastModifiedTime(marker).toMillis() < maxAgeMs) {
+                LogUtil.info("Using existing Chrome profile template: " + directory);
+            } else {
+                build(directory, sessionOptions);
+            }
+            removeStaleClones();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to prepare Chrome profile template", e);
+        }
+        template = directory;
+        return template;
+    }
+
+    private static void build(Path directory, ChromeOptions sessionOptions) throws IOException {
+        List<String> urls = Arrays.stream(ConfigReader.get("driver.profile.warmup.urls", ConfigReader.getBaseUrl()).split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .collect(Collectors.toList());
+        LogUtil.info("Building Chrome profile template from " + urls);
+
+        long start = System.currentTimeMillis();
+        Path staging = directory.resolveSibling(directory.getFileName() + "-" + UUID.randomUUID());
+        Files.createDirectories(staging);
+
+        ChromeOptions options = new ChromeOptions().merge(sessionOptions);
+        options.addArguments("--user-data-dir=" + staging.toAbsolutePath());
+        ChromeDriverService service = (ChromeDriverService) DriverServiceRegistry.startService("chrome");
+        WebDriver driver = new ChromeDriver(service, options);
+        try {
+            for (String url : urls) {
+                driver.get(url);
+                new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getInt("page.load.timeout", 30)))
+                        .until(d -> "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState")));
+            }
+        } finally {
+            // Chrome flushes its caches to disk on a clean exit
+            driver.quit();
+        }
+
+        for (String lock : LOCK_FILES) {
+            Files.deleteIfExists(staging.resolve(lock));
+        }
+        makeCachesReadOnly(staging);
+        Files.createFile(staging.resolve(READY_MARKER));
+
+        delete(directory);
+        Files.move(staging, directory, StandardCopyOption.ATOMIC_MOVE);
+        LogUtil.info("Chrome profile template built in " + (System.currentTimeMillis() - start) + "ms: " + directory);
+    }
+
+    private static void copyTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relative = source.relativize(file);
+                if (relative.toString().equals(READY_MARKER)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                Path destination = target.resolve(relative.toString());
+                // A writable read-only file (root) would let Chrome write through the link
+                if (isCacheFile(relative) && !isUpdatedInPlace(relative) && !Files.isWritable(file)
+                        && link(destination, file)) {
+                    linkedFiles.incrementAndGet();
+                } else {
+                    Files.copy(file, destination, StandardCopyOption.COPY_ATTRIBUTES);
+                    destination.toFile().setWritable(true);
+                    copiedFiles.incrementAndGet();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean link(Path destination, Path file) {
+        try {
+            Files.createLink(destination, file);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // Different file store or no hard-link support: fall back to a plain copy
+            return false;
+        }
+    }
+
+    private static void makeCachesReadOnly(Path profile) throws IOException {
+        try (Stream<Path> files = Files.walk(profile)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> isCacheFile(profile.relativize(file)))
+                    .forEach(file -> file.toFile().setWritable(false, false));
+        }
+    }
+
+    // Cache indexes and block files that Chrome rewrites instead of replacing
+    private static boolean isUpdatedInPlace(Path relative) {
+        String name = relative.getFileName().toString();
+        if (name.equals("index") || name.equals("the-real-index") || name.startsWith("data_")) {
+            return true;
+        }
+        for (Path part : relative) {
+            if (part.toString().equals("index-dir")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Cache directories sit either at the top level or inside a profile directory such as "Default"
+    private static boolean isCacheFile(Path relative) {
+        for (Path part : relative) {
+            if (LINKED_DIRECTORIES.contains(part.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path getClonesDirectory() {
+        return Paths.get(ConfigReader.get("driver.profile.clone.dir", "target/browser-profiles/sessions")).toAbsolutePath();
+    }
+
+    // This JVM's clone directory (clones/<pid>), locked through clones/<pid>.lock
+    private static synchronized Path getProcessClonesDirectory() throws IOException {
+        if (processClones == null) {
+            Path root = Files.createDirectories(getClonesDirectory());
+            String owner = String.valueOf(ProcessHandle.current().pid());
+            FileChannel channel = FileChannel.open(root.resolve(owner + LOCK_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            processLock = channel.lock();
+            processClones = Files.createDirectories(root.resolve(owner));
+        }
+        return processClones;
+    }
+
+    // Clones left behind by JVMs that did not shut down cleanly; a clone directory whose lock
+    // file is still held belongs to a running JVM (e.g. a parallel Maven fork) and is kept
+    private static void removeStaleClones() throws IOException {
+        Path own = getProcessClonesDirectory();
+        List<Path> owners;
+        try (Stream<Path> entries = Files.list(getClonesDirectory())) {
+            owners = entries.filter(Files::isDirectory).filter(dir -> !dir.equals(own)).collect(Collectors.toList());
+        }
+        for (Path owner : owners) {
+            Path lockFile = owner.resolveSibling(owner.getFileName() + LOCK_SUFFIX);
+            if (!Files.exists(lockFile)) {
+                delete(owner);
+                continue;
+            }
+            boolean ownerGone;
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+                 FileLock lock = channel.tryLock()) {
+                ownerGone = lock != null;
+                if (ownerGone) {
+                    delete(owner);
+                }
+            } catch (IOException e) {
+                LogUtil.debug("Could not check Chrome profile clones " + owner + ": " + e.getMessage());
+                continue;
+            }
+            if (ownerGone) {
+                Files.deleteIfExists(lockFile);
+            }
+        }
+    }
+
+    private static void delete(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    LogUtil.debug("Could not delete " + path + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            LogUtil.warn("Failed to delete browser profile " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package driver;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.online.HttpClient;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+import utils.ConfigReader;
+import utils.LogUtil;
+import utils.PerformanceUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves driver binaries once per JVM and browser. Resolved paths are stored in an on-disk
+ * manifest keyed by browser and installed browser version, so later runs (including air-gapped
+ * ones) point Selenium at the cached binary without asking WebDriverManager again.
+ */
+public class DriverBinaryResolver {
+    private static final String UNKNOWN_VERSION = "unknown";
+
+    // One resolution per browser; other threads wait on it instead of resolving again
+    private static final Map<String, CompletableFuture<String>> resolvedPaths = new ConcurrentHashMap<>();
+    private static final Map<String, Long> resolutionTimesMs = new ConcurrentHashMap<>();
+    private static final Object manifestLock = new Object();
+
+    /**
+     * Make sure the driver binary for the browser is available; returns its path, or an empty
+     * string for browsers whose driver ships with the OS (Safari)
+     */
+    public static String resolve(String browser) {
+        String name = browser.toLowerCase();
+        CompletableFuture<String> resolution = new CompletableFuture<>();
+        CompletableFuture<String> existing = resolvedPaths.putIfAbsent(name, resolution);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        // Resolved outside the map: it may download a driver, too long for a mapping function
+        try {
+            String path = resolveOnce(name);
+            resolution.complete(path);
+            return path;
+        } catch (RuntimeException e) {
+            // Let a later call try again
+            resolvedPaths.remove(name, resolution);
+            resolution.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public static Map<String, Long> getResolutionTimes() {
+        return resolutionTimesMs;
+    }
+
+    private static String resolveOnce(String browser) {
+        String operation = "DriverBinaryResolution_" + browser;
+        long start = System.nanoTime();
+        PerformanceUtil.startMeasurement(operation);
+        try {
+            if ("safari".equals(browser)) {
+                WebDriverManager.safaridriver().setup();
+                return "";
+            }
+
+            WebDriverManager manager = managerFor(browser);
+            String browserVersion = detectBrowserVersion(manager);
+            // Without a detected version a cached driver could outlive a browser upgrade
+            String manifestKey = UNKNOWN_VERSION.equals(browserVersion) ? null : browser + "." + browserVersion;
+            Properties manifest = loadManifest();
+
+            String cachedPath = manifestKey != null ? manifest.getProperty(manifestKey + ".driver.path") : null;
+            if (isUsable(cachedPath)) {
+                LogUtil.info("Using cached " + browser + " driver for browser version " + browserVersion + ": " + cachedPath);
+                return applyDriverPath(browser, cachedPath);
+            }
+
+            if (isOffline()) {
+                String lastPath = manifest.getProperty(browser + ".last.driver.path");
+                if (isUsable(lastPath)) {
+                    LogUtil.warn("Offline mode: no manifest entry for " + browser + " " + browserVersion + ", using last known driver: " + lastPath);
+                    return applyDriverPath(browser, lastPath);
+                }
+                throw new IllegalStateException("Offline mode enabled and no cached driver found for " + browser + " " + browserVersion);
+            }
+
+            manager.setup();
+            String driverPath = manager.getDownloadedDriverPath();
+            if (driverPath == null || driverPath.isEmpty()) {
+                return "";
+            }
+            storeInManifest(manifestKey, browser, driverPath, manager.getDownloadedDriverVersion());
+            LogUtil.info("Resolved " + browser + " driver " + manager.getDownloadedDriverVersion() + ": " + driverPath);
+            return applyDriverPath(browser, driverPath);
+        } finally {
+            PerformanceUtil.endMeasurement(operation);
+            resolutionTimesMs.put(browser, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            case "chrome":
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    private static String systemPropertyFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            case "chrome":
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static String applyDriverPath(String browser, String driverPath) {
+        System.setProperty(systemPropertyFor(browser), driverPath);
+        return driverPath;
+    }
+
+    private static boolean isOffline() {
+        return ConfigReader.getBoolean("driver.binary.offline", false);
+    }
+
+    private static boolean isUsable(String path) {
+        return path != null && !path.isEmpty() && Files.isRegularFile(Paths.get(path));
+    }
+
+    /**
+     * Installed browser version, detected the way WebDriverManager does it (registry query on
+     * Windows, the binary's --version elsewhere) without resolving a driver
+     */
+    private static String detectBrowserVersion(WebDriverManager manager) {
+        try (HttpClient httpClient = new HttpClient(manager.config())) {
+            VersionDetector detector = new VersionDetector(manager.config(), httpClient);
+            return detector.getBrowserVersionFromTheShell(manager.getDriverManagerType().getBrowserNameLowerCase())
+                    .filter(version -> !version.isEmpty())
+                    .orElse(UNKNOWN_VERSION);
+        } catch (Exception e) {
+            LogUtil.debug("Browser version detection failed: " + e.getMessage());
+            return UNKNOWN_VERSION;
+        }
+    }
+
+    private static Path getManifestPath() {
+        String defaultPath = System.getProperty("user.home") + "/.cache/selenium/driver-manifest.properties";
+        return Paths.get(ConfigReader.get("driver.manifest.path", defaultPath));
+    }
+
+    private static Properties loadManifest() {
+        Properties manifest = new Properties();
+        Path path = getManifestPath();
+        synchronized (manifestLock) {
+            if (Files.exists(path)) {
+                try (InputStream in = Files.newInputStream(path)) {
+                    manifest.load(in);
+                } catch (IOException e) {
+                    LogUtil.warn("Failed to read driver manifest " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static void storeInManifest(String manifestKey, String browser, String driverPath, String driverVersion) {
+        Path path = getManifestPath();
+        synchronized (manifestLock) {
+            Properties manifest = loadManifest();
+            if (manifestKey != null) {
+                manifest.setProperty(manifestKey + ".driver.path", driverPath);
+                manifest.setProperty(manifestKey + ".driver.version", driverVersion != null ? driverVersion : UNKNOWN_VERSION);
+            }
+            manifest.setProperty(browser + ".last.driver.path", driverPath);
+            try {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                // Write to a temp file and move it so parallel JVMs never read a half-written manifest
+                Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), "driver-manifest", ".tmp");
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    manifest.store(out, "Resolved WebDriver binaries keyed by browser and browser version");
+                }
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LogUtil.warn("Failed to write driver manifest " + path + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import utils.LogUtil;
+import utils.PerformanceUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Nanosecond timing of each phase of WebDriver creation (binary resolution, profile clone, driver process spawn,
+ * session handshake, timeouts, maximize), aggregated per browser into p50/p95/p99 and written as
+ * JSON next to the other performance results.
+ */
+public class DriverCreationMetrics {
+    public static final String BINARY_RESOLUTION = "binaryResolution";
+    public static final String PROFILE_CLONE = "profileClone";
+    public static final String PROCESS_SPAWN = "processSpawn";
+    public static final String SESSION_HANDSHAKE = "sessionHandshake";
+    public static final String TIMEOUTS = "timeouts";
+    public static final String MAXIMIZE = "maximize";
+    public static final String TOTAL = "total";
+
+    private static final String SUMMARY_FILE = "driver-creation-latency.json";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final Map<String, Map<String, Queue<Long>>> spans = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> currentBrowser = new ThreadLocal<>();
+
+    /**
+     * Mark the start of a driver creation on this thread; spans recorded until {@link #end()} belong to this browser
+     */
+    public static void begin(String browser) {
+        currentBrowser.set(browser.toLowerCase());
+    }
+
+    public static void end() {
+        currentBrowser.remove();
+    }
+
+    public static <T> T time(String phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void time(String phase, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void record(String phase, long nanos) {
+        String browser = currentBrowser.get();
+        if (browser == null) {
+            browser = "unknown";
+        }
+        spans.computeIfAbsent(browser, b -> new ConcurrentHashMap<>())
+                .computeIfAbsent(phase, p -> new ConcurrentLinkedQueue<>())
+                .add(nanos);
+    }
+
+    /**
+     * Per browser, per phase: count, mean, p50, p95, p99 and max in milliseconds
+     */
+    public static Map<String, Map<String, Map<String, Object>>> getSummary() {
+        Map<String, Map<String, Map<String, Object>>> summary = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Queue<Long>>> browser : spans.entrySet()) {
+            Map<String, Map<String, Object>> phases = new LinkedHashMap<>();
+            for (Map.Entry<String, Queue<Long>> phase : browser.getValue().entrySet()) {
+                phases.put(phase.getKey(), summarize(phase.getValue()));
+            }
+            summary.put(browser.getKey(), phases);
+        }
+        return summary;
+    }
+
+    /**
+     * Write the summary to target/performance-results/driver-creation-latency.json
+     */
+    public static void writeSummary() {
+        if (spans.isEmpty()) {
+            return;
+        }
+        Path path = PerformanceUtil.getResultsDirectory().resolve(SUMMARY_FILE);
+        try {
+            Files.createDirectories(path.getParent());
+            new ObjectMapper()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(path.toFile(), getSummary());
+            LogUtil.info("Driver creation latency summary written: " + path);
+        } catch (IOException e) {
+            LogUtil.error("Failed to write driver creation latency summary", e);
+        }
+    }
+
+    public static void clear() {
+        spans.clear();
+    }
+
+    private static Map<String, Object> summarize(Queue<Long> samples) {
+        long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", sorted.length);
+        stats.put("meanMs", toMillis((long) Arrays.stream(sorted).average().orElse(0)));
+        stats.put("p50Ms", toMillis(percentile(sorted, 50)));
+        stats.put("p95Ms", toMillis(percentile(sorted, 95)));
+        stats.put("p99Ms", toMillis(percentile(sorted, 99)));
+        stats.put("maxMs", toMillis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+        stats.put("histogramMs", histogram(sorted));
+        return stats;
+    }
+
+    // Power-of-two millisecond buckets, keyed by upper bound
+    private static Map<String, Integer> histogram(long[] sorted) {
+        Map<String, Integer> buckets = new LinkedHashMap<>();
+        for (long nanos : sorted) {
+            long millis = nanos / 1_000_000;
+            long upperBound = millis < 1 ? 1 : Long.highestOneBit(millis) * 2;
+            buckets.merge("<" + upperBound, 1, Integer::sum);
+        }
+        return buckets;
+    }
+
+    // Nearest-rank percentile
+    static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+    }
+}
@@ -1,24 +1,26 @@
 package driver;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.safari.SafariOptions;
 import utils.ConfigReader;
 import utils.LogUtil;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 public class DriverFactory {
     
@@ -30,6 +32,8 @@ public class DriverFactory {
         LogUtil.info("Creating WebDriver instance for browser: " + browser + 
                     ", Grid: " + isGridEnabled + ", Headless: " + isHeadless);
         
+        long start = System.nanoTime();
+        DriverCreationMetrics.begin(browser);
         try {
             if (isGridEnabled) {
                 return createRemoteDriver(browser, isHeadless);
@@ -39,6 +43,9 @@ public class DriverFactory {
         } catch (Exception e) {
             LogUtil.error("Failed to create WebDriver instance", e);
             throw new RuntimeException("WebDriver creation failed", e);
+        } finally {
+            DriverCreationMetrics.record(DriverCreationMetrics.TOTAL, System.nanoTime() - start);
+            DriverCreationMetrics.end();
         }
     }
     
@@ -58,19 +65,36 @@ public class DriverFactory {
         }
     }
     
-    private static WebDriver createRemoteDriver(String browser, boolean headless) throws MalformedURLException {
-        String gridUrl = ConfigReader.getGridUrl();
-        LogUtil.info("Creating remote WebDriver with grid URL: " + gridUrl);
+    private static WebDriver createRemoteDriver(String browser, boolean headless) {
+        LogUtil.info("Creating remote WebDriver on grid endpoints: " + GridEndpointBalancer.getEndpointUrls());
         
+        // Wait here rather than in the hub's new-session queue when the Grid is full
+        boolean admissionControlled = GridAdmissionController.isEnabled();
+        if (admissionControlled) {
+            GridAdmissionController.acquire();
+        }
+        
+        // Least-loaded hub first, failing over to the others
         Capabilities capabilities = getCapabilities(browser, headless);
-        WebDriver driver = new RemoteWebDriver(new URL(gridUrl), capabilities);
+        WebDriver driver;
+        try {
+            driver = GridEndpointBalancer.createSession(capabilities);
+        } catch (RuntimeException e) {
+            if (admissionControlled) {
+                GridAdmissionController.release();
+            }
+            throw e;
+        }
+        if (admissionControlled) {
+            GridAdmissionController.register(driver);
+        }
         
         setupDriver(driver);
         return driver;
     }
     
-    private static ChromeDriver createChromeDriver(boolean headless) {
-        WebDriverManager.chromedriver().setup();
+    private static WebDriver createChromeDriver(boolean headless) {
+        DriverCreationMetrics.time(DriverCreationMetrics.BINARY_RESOLUTION, () -> DriverBinaryResolver.resolve("chrome"));
         ChromeOptions options = new ChromeOptions();
         
         if (headless) {
@@ -100,13 +124,36 @@ public class DriverFactory {
             options.setExperimentalOption("mobileEmulation", mobileEmulation);
         }
         
-        ChromeDriver driver = new ChromeDriver(options);
+        // Start from a clone of the warmed-up profile so static assets are already cached
+        Path profile = null;
+        if (ChromeProfileTemplate.isEnabled()) {
+            profile = DriverCreationMetrics.time(DriverCreationMetrics.PROFILE_CLONE,
+                    () -> ChromeProfileTemplate.cloneForSession(options));
+            options.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+        }
+        
+        WebDriver driver;
+        try {
+            if (DriverServiceRegistry.isEnabled()) {
+                driver = DriverServiceRegistry.createSession("chrome", options);
+            } else {
+                driver = startWithOwnService("chrome", service -> new ChromeDriver((ChromeDriverService) service, options));
+            }
+        } catch (RuntimeException e) {
+            if (profile != null) {
+                ChromeProfileTemplate.discard(profile);
+            }
+            throw e;
+        }
+        if (profile != null) {
+            ChromeProfileTemplate.attach(driver, profile);
+        }
         setupDriver(driver);
         return driver;
     }
     
-    private static FirefoxDriver createFirefoxDriver(boolean headless) {
-        WebDriverManager.firefoxdriver().setup();
+    private static WebDriver createFirefoxDriver(boolean headless) {
+        DriverCreationMetrics.time(DriverCreationMetrics.BINARY_RESOLUTION, () -> DriverBinaryResolver.resolve("firefox"));
         FirefoxOptions options = new FirefoxOptions();
         
         if (headless) {
@@ -116,13 +163,18 @@ public class DriverFactory {
         options.addArguments("--start-maximized");
         options.addArguments("--disable-extensions");
         
-        FirefoxDriver driver = new FirefoxDriver(options);
+        WebDriver driver;
+        if (DriverServiceRegistry.isEnabled()) {
+            driver = DriverServiceRegistry.createSession("firefox", options);
+        } else {
+            driver = startWithOwnService("firefox", service -> new FirefoxDriver((GeckoDriverService) service, options));
+        }
         setupDriver(driver);
         return driver;
     }
     
-    private static EdgeDriver createEdgeDriver(boolean headless) {
-        WebDriverManager.edgedriver().setup();
+    private static WebDriver createEdgeDriver(boolean headless) {
+        DriverCreationMetrics.time(DriverCreationMetrics.BINARY_RESOLUTION, () -> DriverBinaryResolver.resolve("edge"));
         EdgeOptions options = new EdgeOptions();
         
         if (headless) {
@@ -132,16 +184,38 @@ public class DriverFactory {
         options.addArguments("--start-maximized");
         options.addArguments("--disable-extensions");
         
-        EdgeDriver driver = new EdgeDriver(options);
+        WebDriver driver;
+        if (DriverServiceRegistry.isEnabled()) {
+            driver = DriverServiceRegistry.createSession("edge", options);
+        } else {
+            driver = startWithOwnService("edge", service -> new EdgeDriver((EdgeDriverService) service, options));
+        }
         setupDriver(driver);
         return driver;
     }
     
+    // Without driver.service.reuse each session gets its own service, stopped if the session never opens
+    private static WebDriver startWithOwnService(String browser, Function<DriverService, WebDriver> newDriver) {
+        DriverService service = DriverCreationMetrics.time(DriverCreationMetrics.PROCESS_SPAWN,
+                () -> DriverServiceRegistry.startService(browser));
+        try {
+            return DriverCreationMetrics.time(DriverCreationMetrics.SESSION_HANDSHAKE, () -> newDriver.apply(service));
+        } catch (RuntimeException e) {
+            try {
+                service.stop();
+            } catch (RuntimeException stopFailure) {
+                e.addSuppressed(stopFailure);
+            }
+            throw e;
+        }
+    }
+    
     private static SafariDriver createSafariDriver() {
-        WebDriverManager.safaridriver().setup();
+        DriverCreationMetrics.time(DriverCreationMetrics.BINARY_RESOLUTION, () -> DriverBinaryResolver.resolve("safari"));
         SafariOptions options = new SafariOptions();
         
-        SafariDriver driver = new SafariDriver(options);
+        SafariDriver driver = DriverCreationMetrics.time(DriverCreationMetrics.SESSION_HANDSHAKE,
+                () -> new SafariDriver(options));
         setupDriver(driver);
         return driver;
     }
@@ -169,13 +243,15 @@ public class DriverFactory {
     
     private static void setupDriver(WebDriver driver) {
         // Set timeouts
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getInt("implicit.wait", 10)));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(ConfigReader.getInt("page.load.timeout", 30)));
-        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+        DriverCreationMetrics.time(DriverCreationMetrics.TIMEOUTS, () -> {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getImplicitWait()));
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(ConfigReader.getInt("page.load.timeout", 30)));
+            driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(ConfigReader.getInt("script.timeout", 30)));
+        });
         
         // Maximize window if not headless
         if (!ConfigReader.isHeadless()) {
-            driver.manage().window().maximize();
+            DriverCreationMetrics.time(DriverCreationMetrics.MAXIMIZE, () -> driver.manage().window().maximize());
         }
         
         LogUtil.info("WebDriver setup completed successfully");
@@ -188,6 +264,11 @@ public class DriverFactory {
                 LogUtil.info("WebDriver quit successfully");
             } catch (Exception e) {
                 LogUtil.error("Error quitting WebDriver", e);
+            } finally {
+                DriverServiceRegistry.release(driver);
+                GridEndpointBalancer.release(driver);
+                GridAdmissionController.release(driver);
+                ChromeProfileTemplate.release(driver);
             }
         }
     }
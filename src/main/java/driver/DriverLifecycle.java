@@ -0,0 +1,19 @@
+package driver;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides driver.lifecycle.scope for a test class, e.g. {@code @DriverLifecycle(DriverScope.CLASS)}
+ * to share sessions across the methods of the class: a method reuses an idle session of the class
+ * when there is one and opens a new one otherwise, so parallel methods never share a session.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Inherited
+public @interface DriverLifecycle {
+    DriverScope value();
+}
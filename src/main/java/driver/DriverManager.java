@@ -1,38 +1,192 @@
 package driver;
 
 import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+import utils.ExecutionContext;
 import utils.LogUtil;
 
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Drivers are held by the test invocation's {@link ExecutionContext}, not by the worker thread.
+ * The no-argument methods act on {@link ExecutionContext#current()}.
+ */
 public class DriverManager {
-    private static final ThreadLocal<WebDriver> driverThread = new ThreadLocal<>();
-    
+    // Sessions that outlive a method, by scope key; idle ones are handed to the next invocation in the scope
+    private static final Map<String, ScopedSessions> scopedDrivers = new ConcurrentHashMap<>();
+
     public static WebDriver getDriver() {
-        if (driverThread.get() == null) {
-            LogUtil.info("Creating new WebDriver instance for thread: " + Thread.currentThread().getName());
-            driverThread.set(DriverFactory.createInstance());
+        return getDriver(requireContext());
+    }
+
+    public static WebDriver getDriver(ExecutionContext context) {
+        if (context.getDriver() == null) {
+            context.setDriver(newDriver(context));
+        }
+        return context.getDriver();
+    }
+
+    public static WebDriver getDriver(DriverScope scope, String scopeName) {
+        return getDriver(requireContext(), scope, scopeName);
+    }
+
+    /**
+     * Get the driver for a lifecycle scope, reusing an idle session of the scope if there is one
+     */
+    public static WebDriver getDriver(ExecutionContext context, DriverScope scope, String scopeName) {
+        if (scope == DriverScope.METHOD || context.getDriver() != null) {
+            return getDriver(context);
         }
-        return driverThread.get();
+        ScopedSessions sessions = scopedDrivers.computeIfAbsent(scopeKey(scope, scopeName), k -> new ScopedSessions());
+        WebDriver driver = sessions.idle.pollFirst();
+        if (driver == null) {
+            driver = newDriver(context);
+            sessions.all.add(driver);
+        } else {
+            LogUtil.info("Reusing " + scope + "-scoped WebDriver for " + context.getName());
+            if (DriverPool.isEnabled()) {
+                try {
+                    DriverPool.unpark(driver);
+                } catch (RuntimeException e) {
+                    sessions.idle.offerFirst(driver);
+                    throw e;
+                }
+            }
+        }
+        context.setDriver(driver);
+        return driver;
     }
-    
+
+    /**
+     * Resolve the lifecycle scope for a test class from @DriverLifecycle or driver.lifecycle.scope
+     */
+    public static DriverScope getScope(Class<?> testClass) {
+        DriverLifecycle lifecycle = testClass.getAnnotation(DriverLifecycle.class);
+        if (lifecycle != null) {
+            return lifecycle.value();
+        }
+        return DriverScope.fromConfig(ConfigReader.get("driver.lifecycle.scope", "method"));
+    }
+
+    public static void endMethod(DriverScope scope, String scopeName) {
+        endMethod(requireContext(), scope, scopeName);
+    }
+
+    /**
+     * Finish a test method: method-scoped drivers are quit, longer-lived ones are reset for the next method
+     */
+    public static void endMethod(ExecutionContext context, DriverScope scope, String scopeName) {
+        WebDriver driver = context.getDriver();
+        context.setDriver(null);
+        if (driver == null) {
+            return;
+        }
+        ScopedSessions sessions = scope == DriverScope.METHOD ? null : scopedDrivers.get(scopeKey(scope, scopeName));
+        if (sessions == null || !sessions.all.contains(driver)) {
+            LogUtil.info("Releasing WebDriver for " + context.getName());
+            disposeDriver(driver);
+        } else if (DriverPool.reset(driver)) {
+            // An idle scoped session must not hold a pool permit until its scope ends
+            if (DriverPool.isEnabled()) {
+                DriverPool.park(driver);
+            }
+            sessions.idle.offerFirst(driver);
+        } else {
+            LogUtil.warn("Could not reset " + scope + "-scoped WebDriver, discarding it");
+            sessions.all.remove(driver);
+            disposeDriver(driver);
+        }
+    }
+
+    /**
+     * Quit (or return to the pool) every session held for a scope
+     */
+    public static void quitScope(DriverScope scope, String scopeName) {
+        ScopedSessions sessions = scopedDrivers.remove(scopeKey(scope, scopeName));
+        if (sessions != null) {
+            LogUtil.info("Ending " + scope + " scope '" + scopeName + "', releasing " + sessions.all.size() + " WebDriver session(s)");
+            sessions.all.forEach(DriverManager::disposeDriver);
+        }
+    }
+
+    public static void quitAllScopes() {
+        for (String key : scopedDrivers.keySet()) {
+            ScopedSessions sessions = scopedDrivers.remove(key);
+            if (sessions != null) {
+                sessions.all.forEach(DriverManager::disposeDriver);
+            }
+        }
+    }
+
     public static void setDriver(WebDriver driver) {
-        LogUtil.info("Setting WebDriver instance for thread: " + Thread.currentThread().getName());
-        driverThread.set(driver);
+        ExecutionContext context = requireContext();
+        LogUtil.info("Setting WebDriver instance for " + context.getName());
+        context.setDriver(driver);
     }
-    
+
     public static void quitDriver() {
-        WebDriver driver = driverThread.get();
+        ExecutionContext context = ExecutionContext.current();
+        WebDriver driver = context != null ? context.getDriver() : null;
         if (driver != null) {
-            LogUtil.info("Quitting WebDriver for thread: " + Thread.currentThread().getName());
-            DriverFactory.quitDriver(driver);
-            driverThread.remove();
+            LogUtil.info("Releasing WebDriver for " + context.getName());
+            context.setDriver(null);
+            disposeDriver(driver);
         }
     }
-    
+
     public static void removeDriver() {
-        driverThread.remove();
+        ExecutionContext context = ExecutionContext.current();
+        if (context != null) {
+            context.setDriver(null);
+        }
     }
-    
+
     public static boolean hasDriver() {
-        return driverThread.get() != null;
+        ExecutionContext context = ExecutionContext.current();
+        return context != null && context.getDriver() != null;
+    }
+
+    private static ExecutionContext requireContext() {
+        ExecutionContext context = ExecutionContext.current();
+        if (context == null) {
+            throw new IllegalStateException("No test execution context is bound on thread "
+                    + Thread.currentThread().getName() + "; wrap the task with ExecutionContext.wrap()");
+        }
+        return context;
+    }
+
+    private static WebDriver newDriver(ExecutionContext context) {
+        long start = System.currentTimeMillis();
+        WebDriver driver;
+        if (DriverPool.isEnabled()) {
+            LogUtil.info("Checking out pooled WebDriver for " + context.getName());
+            driver = DriverPool.checkout();
+        } else {
+            LogUtil.info("Creating new WebDriver instance for " + context.getName());
+            driver = DriverPrefetcher.acquire();
+        }
+        context.recordMetric("driverAcquireMs", System.currentTimeMillis() - start);
+        return driver;
+    }
+
+    private static void disposeDriver(WebDriver driver) {
+        if (DriverPool.isEnabled()) {
+            DriverPool.release(driver);
+        } else {
+            DriverFactory.quitDriver(driver);
+        }
+    }
+
+    private static String scopeKey(DriverScope scope, String scopeName) {
+        return scope + ":" + scopeName;
+    }
+
+    private static class ScopedSessions {
+        private final Set<WebDriver> all = ConcurrentHashMap.newKeySet();
+        private final Deque<WebDriver> idle = new ConcurrentLinkedDeque<>();
     }
 }
@@ -0,0 +1,274 @@
+package driver;
+
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import utils.ConfigReader;
+import utils.LogUtil;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of live WebDriver sessions shared by test methods.
+ * A session is reset between checkouts and evicted after a configured number of uses
+ * or when it fails a health check. The bound applies to sessions in use: a session a lifecycle
+ * scope keeps idle between methods is parked and gives back its permit until it is used again.
+ */
+public class DriverPool {
+    private static final String BLANK_PAGE = "about:blank";
+
+    private static final Map<String, Deque<PooledDriver>> idleSessions = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, PooledDriver> checkedOut = new ConcurrentHashMap<>();
+    private static final Set<WebDriver> parked = ConcurrentHashMap.newKeySet();
+    private static final Semaphore permits = new Semaphore(getMaxSize(), true);
+
+    private static final AtomicInteger created = new AtomicInteger();
+    private static final AtomicInteger reused = new AtomicInteger();
+    private static final AtomicInteger evicted = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("driver.pool.enabled", false);
+    }
+
+    public static int getMaxSize() {
+        return ConfigReader.getInt("driver.pool.max.size", ConfigReader.getThreadCount());
+    }
+
+    public static int getMaxUses() {
+        return ConfigReader.getInt("driver.pool.max.uses", 25);
+    }
+
+    /**
+     * Check out a live session, reusing an idle one when available
+     */
+    public static WebDriver checkout() {
+        acquirePermit();
+        String key = getPoolKey();
+        try {
+            PooledDriver pooled;
+            while ((pooled = idleQueue(key).pollFirst()) != null) {
+                if (isHealthy(pooled.driver)) {
+                    reused.incrementAndGet();
+                    LogUtil.info("Reusing pooled WebDriver (use " + (pooled.uses + 1) + "/" + getMaxUses() + ")");
+                    break;
+                }
+                LogUtil.warn("Pooled WebDriver failed health check, evicting");
+                evict(pooled);
+            }
+
+            if (pooled == null) {
+                pooled = new PooledDriver(key, DriverPrefetcher.acquire());
+                created.incrementAndGet();
+                LogUtil.info("Pool created new WebDriver session for key: " + key);
+            }
+
+            checkedOut.put(pooled.driver, pooled);
+            return pooled.driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give back the permit of a checked-out session that a lifecycle scope keeps idle between methods
+     */
+    public static void park(WebDriver driver) {
+        if (checkedOut.containsKey(driver) && parked.add(driver)) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Take a permit again before a parked session is used by the next method of its scope
+     */
+    public static void unpark(WebDriver driver) {
+        if (parked.contains(driver)) {
+            acquirePermit();
+            parked.remove(driver);
+        }
+    }
+
+    /**
+     * Return a session to the pool, resetting it for the next test
+     */
+    public static void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        boolean wasParked = parked.remove(driver);
+        PooledDriver pooled = checkedOut.remove(driver);
+        if (pooled == null) {
+            LogUtil.warn("Released WebDriver was not checked out from the pool, quitting it");
+            DriverFactory.quitDriver(driver);
+            return;
+        }
+
+        try {
+            pooled.uses++;
+            if (pooled.uses >= getMaxUses()) {
+                LogUtil.info("WebDriver reached max uses (" + pooled.uses + "), evicting");
+                evict(pooled);
+            } else if (!reset(driver) || !isHealthy(driver)) {
+                LogUtil.warn("WebDriver could not be reset, evicting");
+                evict(pooled);
+            } else {
+                // LIFO keeps the most recently used (warmest) sessions in rotation
+                idleQueue(pooled.key).offerFirst(pooled);
+            }
+        } finally {
+            if (!wasParked) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Remove a checked-out session from the pool and quit it
+     */
+    public static void invalidate(WebDriver driver) {
+        boolean wasParked = parked.remove(driver);
+        PooledDriver pooled = checkedOut.remove(driver);
+        if (pooled != null) {
+            evict(pooled);
+            if (!wasParked) {
+                permits.release();
+            }
+        } else {
+            DriverFactory.quitDriver(driver);
+        }
+    }
+
+    /**
+     * Quit every idle session. Checked-out sessions are left to their owners.
+     */
+    public static void shutdown() {
+        for (Deque<PooledDriver> queue : idleSessions.values()) {
+            PooledDriver pooled;
+            while ((pooled = queue.pollFirst()) != null) {
+                DriverFactory.quitDriver(pooled.driver);
+            }
+        }
+    }
+
+    /**
+     * Get pool statistics
+     */
+    public static Map<String, Object> getStatistics() {
+        int createdCount = created.get();
+        int reusedCount = reused.get();
+        int checkouts = createdCount + reusedCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("created", createdCount);
+        stats.put("reused", reusedCount);
+        stats.put("evicted", evicted.get());
+        stats.put("checkedOut", checkedOut.size());
+        stats.put("idle", idleSessions.values().stream().mapToInt(Deque::size).sum());
+        stats.put("reuseRatio", checkouts > 0 ? (double) reusedCount / checkouts : 0.0);
+        return stats;
+    }
+
+    public static void logStatistics() {
+        LogUtil.info("WebDriver pool statistics: " + getStatistics());
+    }
+
+    static String getPoolKey() {
+        return ConfigReader.getBrowser().toLowerCase() + "|grid=" + ConfigReader.isGridEnabled()
+                + "|headless=" + ConfigReader.isHeadless();
+    }
+
+    private static Deque<PooledDriver> idleQueue(String key) {
+        return idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static void acquirePermit() {
+        int timeoutSeconds = ConfigReader.getInt("driver.pool.checkout.timeout", 300);
+        try {
+            if (!permits.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Timed out after " + timeoutSeconds + "s waiting for a pooled WebDriver");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a pooled WebDriver", e);
+        }
+    }
+
+    private static void evict(PooledDriver pooled) {
+        evicted.incrementAndGet();
+        DriverFactory.quitDriver(pooled.driver);
+    }
+
+    static boolean isHealthy(WebDriver driver) {
+        try {
+            if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null) {
+                return false;
+            }
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bring a session back to a clean state: single window, no alert, no cookies or storage, blank page
+     */
+    static boolean reset(WebDriver driver) {
+        try {
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException e) {
+                // No alert open
+            }
+
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i));
+                driver.close();
+            }
+            driver.switchTo().window(handles.get(0));
+            driver.switchTo().defaultContent();
+
+            // Storage and cookies are scoped to the current origin, so clear them before leaving it
+            try {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            } catch (Exception e) {
+                LogUtil.debug("Could not clear web storage: " + e.getMessage());
+            }
+            driver.manage().deleteAllCookies();
+            driver.get(BLANK_PAGE);
+            return true;
+        } catch (Exception e) {
+            LogUtil.error("Failed to reset pooled WebDriver", e);
+            return false;
+        }
+    }
+
+    private static class PooledDriver {
+        private final String key;
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledDriver(String key, WebDriver driver) {
+            this.key = key;
+            this.driver = driver;
+        }
+    }
+}
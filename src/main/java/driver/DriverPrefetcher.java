@@ -0,0 +1,259 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+import utils.LogUtil;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts WebDriver sessions on a background executor so a test thread can take a ready
+ * browser instead of blocking on startup. The number of sessions kept ready follows the
+ * observed consumption rate (sessions needed = take rate x startup time), bounded by
+ * thread.count and driver.prefetch.max.idle. Prefetching starts with the first session a test
+ * actually requests, and a background sweeper quits sessions left idle longer than
+ * driver.prefetch.idle.timeout.
+ */
+public class DriverPrefetcher {
+    private static final LinkedBlockingDeque<PrefetchedDriver> ready = new LinkedBlockingDeque<>();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static final AtomicInteger misses = new AtomicInteger();
+    private static final AtomicInteger expired = new AtomicInteger();
+
+    // Exponentially weighted averages, in nanoseconds
+    private static final AtomicLong avgCreateNanos = new AtomicLong();
+    private static final AtomicLong avgInterArrivalNanos = new AtomicLong();
+    private static final AtomicLong lastTakeNanos = new AtomicLong();
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(1, getMaxIdle()), runnable -> {
+                Thread thread = new Thread(runnable, "driver-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "driver-prefetch-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicBoolean sweeperStarted = new AtomicBoolean();
+    private static volatile boolean shutDown;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPrefetcher::shutdown, "driver-prefetch-shutdown"));
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("driver.prefetch.enabled", false);
+    }
+
+    public static int getMaxIdle() {
+        return ConfigReader.getInt("driver.prefetch.max.idle", 2);
+    }
+
+    public static long getIdleTimeoutNanos() {
+        return TimeUnit.SECONDS.toNanos(ConfigReader.getInt("driver.prefetch.idle.timeout", 120));
+    }
+
+    /**
+     * Take a pre-spawned session if one is ready, otherwise create one on the calling thread.
+     * The next session is started in the background after a miss, or after a hit when every test
+     * creates its own session; a pool that took a prefetched session is not refilled, since it
+     * reuses its sessions.
+     */
+    public static WebDriver acquire() {
+        if (!isEnabled()) {
+            return DriverFactory.createInstance();
+        }
+
+        recordTake();
+        String key = DriverPool.getPoolKey();
+
+        WebDriver driver = pollReady(key);
+        boolean hit = driver != null;
+        if (hit) {
+            hits.incrementAndGet();
+            LogUtil.info("Using pre-spawned WebDriver session");
+        } else {
+            misses.incrementAndGet();
+            LogUtil.info("No pre-spawned WebDriver ready, creating on test thread");
+            driver = createTimed();
+        }
+
+        if (!hit || !DriverPool.isEnabled()) {
+            refill();
+        }
+        return driver;
+    }
+
+    /**
+     * Start background sessions until the target depth is reached
+     */
+    public static void refill() {
+        if (!isEnabled() || shutDown) {
+            return;
+        }
+        startSweeper();
+        String key = DriverPool.getPoolKey();
+        int target = getTargetDepth();
+        while (ready.size() + inFlight.get() < target) {
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> prefetch(key));
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                LogUtil.error("Failed to schedule WebDriver prefetch", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of sessions to keep ready or starting, from the consumption rate and startup time
+     */
+    static int getTargetDepth() {
+        int cap = Math.min(getMaxIdle(), ConfigReader.getThreadCount());
+        if (cap <= 0) {
+            return 0;
+        }
+        long create = avgCreateNanos.get();
+        long interArrival = avgInterArrivalNanos.get();
+        if (create == 0 || interArrival == 0) {
+            return 1;
+        }
+        int needed = (int) Math.ceil((double) create / interArrival);
+        return Math.max(1, Math.min(cap, needed));
+    }
+
+    public static void shutdown() {
+        shutDown = true;
+        sweeper.shutdownNow();
+        executor.shutdownNow();
+        try {
+            // A session still starting is quit by its task; wait so none is left behind
+            if (!executor.awaitTermination(ConfigReader.getInt("page.load.timeout", 30), TimeUnit.SECONDS)) {
+                LogUtil.warn("WebDriver prefetch still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PrefetchedDriver prefetched;
+        while ((prefetched = ready.pollFirst()) != null) {
+            DriverFactory.quitDriver(prefetched.driver);
+        }
+    }
+
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("expired", expired.get());
+        stats.put("ready", ready.size());
+        stats.put("inFlight", inFlight.get());
+        stats.put("targetDepth", getTargetDepth());
+        stats.put("avgCreateMs", TimeUnit.NANOSECONDS.toMillis(avgCreateNanos.get()));
+        return stats;
+    }
+
+    public static void logStatistics() {
+        LogUtil.info("WebDriver prefetch statistics: " + getStatistics());
+    }
+
+    private static void prefetch(String key) {
+        try {
+            if (!key.equals(DriverPool.getPoolKey())) {
+                return;
+            }
+            WebDriver driver = createTimed();
+            if (shutDown) {
+                DriverFactory.quitDriver(driver);
+                return;
+            }
+            ready.offerLast(new PrefetchedDriver(key, driver));
+            LogUtil.debug("Pre-spawned WebDriver session is ready");
+        } catch (Exception e) {
+            LogUtil.error("Background WebDriver prefetch failed", e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static WebDriver pollReady(String key) {
+        Iterator<PrefetchedDriver> iterator = ready.iterator();
+        while (iterator.hasNext()) {
+            PrefetchedDriver prefetched = iterator.next();
+            if (prefetched.key.equals(key) && ready.removeFirstOccurrence(prefetched)) {
+                return prefetched.driver;
+            }
+        }
+        return null;
+    }
+
+    private static void startSweeper() {
+        if (sweeperStarted.compareAndSet(false, true)) {
+            long period = Math.max(TimeUnit.SECONDS.toNanos(1), getIdleTimeoutNanos() / 4);
+            sweeper.scheduleAtFixedRate(() -> {
+                try {
+                    expireIdle();
+                } catch (RuntimeException e) {
+                    // An exception would cancel the schedule
+                    LogUtil.error("Failed to expire idle pre-spawned WebDriver sessions", e);
+                }
+            }, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void expireIdle() {
+        long now = System.nanoTime();
+        long timeout = getIdleTimeoutNanos();
+        for (PrefetchedDriver prefetched : ready) {
+            if (now - prefetched.readyAt > timeout && ready.removeFirstOccurrence(prefetched)) {
+                expired.incrementAndGet();
+                LogUtil.info("Quitting pre-spawned WebDriver idle for more than " + TimeUnit.NANOSECONDS.toSeconds(timeout) + "s");
+                DriverFactory.quitDriver(prefetched.driver);
+            }
+        }
+    }
+
+    private static WebDriver createTimed() {
+        long start = System.nanoTime();
+        WebDriver driver = DriverFactory.createInstance();
+        updateAverage(avgCreateNanos, System.nanoTime() - start);
+        return driver;
+    }
+
+    private static void recordTake() {
+        long now = System.nanoTime();
+        long previous = lastTakeNanos.getAndSet(now);
+        if (previous != 0) {
+            updateAverage(avgInterArrivalNanos, now - previous);
+        }
+    }
+
+    private static void updateAverage(AtomicLong average, long sample) {
+        average.getAndUpdate(current -> current == 0 ? sample : (current * 7 + sample) / 8);
+    }
+
+    private static class PrefetchedDriver {
+        private final String key;
+        private final WebDriver driver;
+        private final long readyAt;
+
+        private PrefetchedDriver(String key, WebDriver driver) {
+            this.key = key;
+            this.driver = driver;
+            this.readyAt = System.nanoTime();
+        }
+    }
+}
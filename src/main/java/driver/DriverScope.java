@@ -0,0 +1,20 @@
+package driver;
+
+/**
+ * How long a WebDriver session lives before it is quit (or returned to the pool).
+ * Sessions shared beyond a single method are reset between methods.
+ */
+public enum DriverScope {
+    METHOD,
+    CLASS,
+    TEST,
+    SUITE;
+
+    public static DriverScope fromConfig(String value) {
+        try {
+            return DriverScope.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return METHOD;
+        }
+    }
+}
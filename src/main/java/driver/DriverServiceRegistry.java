@@ -0,0 +1,179 @@
+package driver;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+import utils.ConfigReader;
+import utils.LogUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps chromedriver, geckodriver and msedgedriver processes alive for the whole suite and opens
+ * new sessions against them. Sessions are created as RemoteWebDriver on the service URL because
+ * quitting a ChromeDriver/FirefoxDriver/EdgeDriver also stops its service; the Augmenter adds back
+ * the browser interfaces such as HasCdp and HasDevTools.
+ */
+public class DriverServiceRegistry {
+    private static final Map<String, List<ServiceSlot>> services = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, ServiceSlot> leases = new ConcurrentHashMap<>();
+    private static final AtomicInteger started = new AtomicInteger();
+    private static final AtomicInteger restarts = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServiceRegistry::shutdown, "driver-service-shutdown"));
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("driver.service.reuse", false);
+    }
+
+    /**
+     * Open a new session on a running driver service for the browser
+     */
+    public static WebDriver createSession(String browser, Capabilities options) {
+        ServiceSlot slot = lease(browser.toLowerCase());
+        try {
+            RemoteWebDriver session = DriverCreationMetrics.time(DriverCreationMetrics.SESSION_HANDSHAKE,
+                    () -> RemoteClientConfig.createDriver(slot.service.getUrl(), options));
+            WebDriver driver = augment(session);
+            leases.put(driver, slot);
+            return driver;
+        } catch (RuntimeException e) {
+            slot.activeSessions.decrementAndGet();
+            throw e;
+        }
+    }
+
+    // Restore the browser-specific interfaces ChromeDriver would have (HasCdp, HasDevTools, ...)
+    private static WebDriver augment(RemoteWebDriver session) {
+        try {
+            return new Augmenter().augment(session);
+        } catch (RuntimeException e) {
+            LogUtil.debug("Driver service session not augmented: " + e.getMessage());
+            return session;
+        }
+    }
+
+    /**
+     * Give back the service capacity held by a session that has been quit
+     */
+    public static void release(WebDriver driver) {
+        ServiceSlot slot = leases.remove(driver);
+        if (slot != null) {
+            slot.activeSessions.decrementAndGet();
+        }
+    }
+
+    public static synchronized void shutdown() {
+        for (List<ServiceSlot> slots : services.values()) {
+            for (ServiceSlot slot : slots) {
+                try {
+                    slot.service.stop();
+                } catch (Exception e) {
+                    LogUtil.error("Error stopping driver service", e);
+                }
+            }
+            slots.clear();
+        }
+        LogUtil.info("Driver services stopped (started: " + started.get() + ", restarts: " + restarts.get() + ")");
+    }
+
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("started", started.get());
+        stats.put("restarts", restarts.get());
+        stats.put("activeSessions", leases.size());
+        return stats;
+    }
+
+    private static synchronized ServiceSlot lease(String browser) {
+        List<ServiceSlot> slots = services.computeIfAbsent(browser, b -> new ArrayList<>());
+        int capacity = getSessionsPerService(browser);
+
+        for (ServiceSlot slot : slots) {
+            if (slot.activeSessions.get() < capacity) {
+                ensureRunning(slot);
+                slot.activeSessions.incrementAndGet();
+                return slot;
+            }
+        }
+
+        ServiceSlot slot = new ServiceSlot(browser,
+                DriverCreationMetrics.time(DriverCreationMetrics.PROCESS_SPAWN, () -> startService(browser)));
+        slot.activeSessions.incrementAndGet();
+        slots.add(slot);
+        return slot;
+    }
+
+    private static int getSessionsPerService(String browser) {
+        // geckodriver only supports one session per process
+        if ("firefox".equals(browser)) {
+            return 1;
+        }
+        return Math.max(1, ConfigReader.getInt("driver.service.max.sessions", ConfigReader.getThreadCount()));
+    }
+
+    private static void ensureRunning(ServiceSlot slot) {
+        if (!slot.service.isRunning()) {
+            LogUtil.warn("Driver service for " + slot.browser + " is not running, restarting it");
+            restarts.incrementAndGet();
+            try {
+                slot.service.stop();
+            } catch (Exception e) {
+                LogUtil.debug("Error stopping crashed driver service: " + e.getMessage());
+            }
+            slot.service = DriverCreationMetrics.time(DriverCreationMetrics.PROCESS_SPAWN, () -> startService(slot.browser));
+        }
+    }
+
+    /**
+     * Start a new driver process for the browser; callers that do not register it own its lifecycle
+     */
+    static DriverService startService(String browser) {
+        DriverBinaryResolver.resolve(browser);
+        DriverService service;
+        switch (browser) {
+            case "firefox":
+                service = GeckoDriverService.createDefaultService();
+                break;
+            case "edge":
+                service = EdgeDriverService.createDefaultService();
+                break;
+            case "chrome":
+            default:
+                service = ChromeDriverService.createDefaultService();
+                break;
+        }
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start driver service for " + browser, e);
+        }
+        started.incrementAndGet();
+        LogUtil.info("Started " + browser + " driver service at " + service.getUrl());
+        return service;
+    }
+
+    private static class ServiceSlot {
+        private final String browser;
+        private final AtomicInteger activeSessions = new AtomicInteger();
+        private volatile DriverService service;
+
+        private ServiceSlot(String browser, DriverService service) {
+            this.browser = browser;
+            this.service = service;
+        }
+    }
+}
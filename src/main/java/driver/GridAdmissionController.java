@@ -0,0 +1,167 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+import utils.ExecutionContext;
+import utils.LogUtil;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits remote session requests only while the Grid has a slot for them. Workers above the
+ * Grid's capacity wait on a fair semaphore here instead of inside a new-session request that
+ * times out on the hub and burns a retry. The number of permits follows grid.max.sessions,
+ * lowered to the slots the hubs report as usable when they are polled.
+ */
+public class GridAdmissionController {
+    public static final String QUEUE_WAIT_METRIC = "gridQueueWaitMs";
+
+    private static final AdjustableSemaphore permits = new AdjustableSemaphore(getMaxSessions());
+    private static final Set<WebDriver> admitted = ConcurrentHashMap.newKeySet();
+    private static final Queue<Long> waitTimesMs = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger timeouts = new AtomicInteger();
+    private static volatile int limit = getMaxSessions();
+    private static volatile ScheduledExecutorService poller;
+
+    public static boolean isEnabled() {
+        return ConfigReader.isGridEnabled() && ConfigReader.getBoolean("grid.admission.enabled", true);
+    }
+
+    public static int getMaxSessions() {
+        return Math.max(1, ConfigReader.getInt("grid.max.sessions", ConfigReader.getThreadCount()));
+    }
+
+    /**
+     * Block until the Grid has room for one more session; the wait is recorded for the running test
+     */
+    public static void acquire() {
+        startPolling();
+        int timeoutSeconds = ConfigReader.getInt("grid.admission.timeout", 600);
+        long start = System.currentTimeMillis();
+        try {
+            if (!permits.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                timeouts.incrementAndGet();
+                throw new RuntimeException("Timed out after " + timeoutSeconds + "s waiting for a free Grid slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a free Grid slot", e);
+        }
+
+        long waitedMs = System.currentTimeMillis() - start;
+        waitTimesMs.add(waitedMs);
+        ExecutionContext context = ExecutionContext.current();
+        if (context != null) {
+            context.recordMetric(QUEUE_WAIT_METRIC, waitedMs);
+        }
+        if (waitedMs > 1000) {
+            LogUtil.info("Waited " + waitedMs + "ms for a free Grid slot");
+        }
+    }
+
+    /**
+     * Tie the admitted slot to the session so it is given back when the session quits
+     */
+    public static void register(WebDriver driver) {
+        admitted.add(driver);
+    }
+
+    /**
+     * Give back a slot whose session could not be created
+     */
+    public static void release() {
+        permits.release();
+    }
+
+    public static void release(WebDriver driver) {
+        if (admitted.remove(driver)) {
+            permits.release();
+        }
+    }
+
+    public static Map<String, Object> getStatistics() {
+        long[] sorted = waitTimesMs.stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", limit);
+        stats.put("admitted", sorted.length);
+        stats.put("active", admitted.size());
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("timeouts", timeouts.get());
+        stats.put("queueWaitMeanMs", Arrays.stream(sorted).average().orElse(0));
+        stats.put("queueWaitP95Ms", DriverCreationMetrics.percentile(sorted, 95));
+        stats.put("queueWaitMaxMs", sorted.length > 0 ? sorted[sorted.length - 1] : 0);
+        return stats;
+    }
+
+    public static void logStatistics() {
+        LogUtil.info("Grid admission statistics: " + getStatistics());
+    }
+
+    public static synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /**
+     * Resize the number of permits to the usable Grid slots, never above grid.max.sessions
+     */
+    static synchronized void updateCapacity(int usableSlots) {
+        int newLimit = usableSlots < 0 ? getMaxSessions() : Math.max(1, Math.min(getMaxSessions(), usableSlots));
+        int delta = newLimit - limit;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+        if (delta != 0) {
+            LogUtil.info("Grid admission limit changed from " + limit + " to " + newLimit + " session(s)");
+            limit = newLimit;
+        }
+    }
+
+    private static synchronized void startPolling() {
+        if (poller != null) {
+            return;
+        }
+        int intervalMs = ConfigReader.getInt("grid.capacity.poll.ms", 5000);
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grid-capacity-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(GridAdmissionController::poll, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void poll() {
+        try {
+            updateCapacity(GridEndpointBalancer.getUsableSlots());
+        } catch (Exception e) {
+            LogUtil.debug("Grid capacity poll failed: " + e.getMessage());
+        }
+    }
+
+    // Semaphore.reducePermits is protected; shrinking lets the limit follow the Grid without revoking held permits
+    private static class AdjustableSemaphore extends Semaphore {
+        private AdjustableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import utils.ConfigReader;
+import utils.LogUtil;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads remote sessions over several Grid hubs (grid.urls). Each new session goes to the hub
+ * with the most free slots according to its /status endpoint, minus sessions this JVM has started
+ * there since the last poll. A hub that cannot be reached or has no capacity for a session is put
+ * on cooldown and the next one is tried; other failures, such as capabilities no node supports,
+ * are thrown right away. New-session time is recorded per hub, which is where Grid queueing shows up.
+ */
+public class GridEndpointBalancer {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    // Grid's wording when a hub has no free slot or the request expired in its new-session queue
+    private static final List<String> CAPACITY_REFUSALS = List.of("no slots", "timed out", "queue");
+    private static final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, Endpoint> leases = new ConcurrentHashMap<>();
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Configured hubs from grid.urls (comma-separated), falling back to grid.url
+     */
+    public static List<String> getEndpointUrls() {
+        String urls = ConfigReader.get("grid.urls", "");
+        if (urls.trim().isEmpty()) {
+            urls = ConfigReader.getGridUrl();
+        }
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Open a session on the least-loaded hub, failing over to the others in order of load
+     */
+    public static WebDriver createSession(Capabilities capabilities) {
+        return createSession(getEndpointUrls(), capabilities);
+    }
+
+    public static WebDriver createSession(List<String> urls, Capabilities capabilities) {
+        List<String> candidates = selectEndpoints(urls);
+        RuntimeException lastFailure = null;
+
+        for (String url : candidates) {
+            Endpoint endpoint = endpoint(url);
+            endpoint.pending.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                RemoteWebDriver driver = DriverCreationMetrics.time(DriverCreationMetrics.SESSION_HANDSHAKE,
+                        () -> RemoteClientConfig.createDriver(toUrl(url), capabilities));
+                endpoint.newSessionNanos.add(System.nanoTime() - start);
+                endpoint.active.incrementAndGet();
+                leases.put(driver, endpoint);
+                LogUtil.info("Remote session created on " + url);
+                return driver;
+            } catch (RuntimeException e) {
+                if (!isHubFailure(e)) {
+                    throw e;
+                }
+                endpoint.failures.incrementAndGet();
+                endpoint.cooldownUntil = System.currentTimeMillis() + ConfigReader.getInt("grid.endpoint.cooldown.ms", 30000);
+                LogUtil.warn("Grid endpoint " + url + " refused a new session, trying next: " + e.getMessage());
+                lastFailure = e;
+            } finally {
+                endpoint.pending.decrementAndGet();
+            }
+        }
+        throw new SessionNotCreatedException("No Grid endpoint accepted the session (tried " + candidates + ")", lastFailure);
+    }
+
+    // Connection failures and capacity refusals are specific to the hub; anything else (bad
+    // capabilities, client-side errors) would fail the same way on every hub
+    static boolean isHubFailure(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException
+                    || cause instanceof UnreachableBrowserException) {
+                return true;
+            }
+        }
+        if (e instanceof SessionNotCreatedException) {
+            String message = String.valueOf(e.getMessage()).toLowerCase(Locale.ROOT);
+            return CAPACITY_REFUSALS.stream().anyMatch(message::contains);
+        }
+        return false;
+    }
+
+    /**
+     * Release the slot accounting held by a session that has been quit
+     */
+    public static void release(WebDriver driver) {
+        Endpoint endpoint = leases.remove(driver);
+        if (endpoint != null) {
+            endpoint.active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Endpoints ordered best first: ready hubs by free slots, then hubs with unknown status, then
+     * hubs that are not ready or cooling down after a refused session
+     */
+    public static List<String> selectEndpoints() {
+        return selectEndpoints(getEndpointUrls());
+    }
+
+    public static List<String> selectEndpoints(List<String> urls) {
+        List<Endpoint> ranked = new ArrayList<>();
+        for (String url : urls) {
+            Endpoint endpoint = endpoint(url);
+            refreshStatus(endpoint);
+            ranked.add(endpoint);
+        }
+        ranked.sort(Comparator.comparingInt(GridEndpointBalancer::tier)
+                .thenComparing(Comparator.comparingInt(GridEndpointBalancer::estimatedFreeSlots).reversed()));
+        return ranked.stream().map(endpoint -> endpoint.url).collect(Collectors.toList());
+    }
+
+    /**
+     * Slots this JVM can use across ready hubs (free slots plus the sessions it already holds there),
+     * or -1 when no hub reported its status
+     */
+    public static int getUsableSlots() {
+        int usable = 0;
+        boolean known = false;
+        for (String url : selectEndpoints()) {
+            Endpoint endpoint = endpoint(url);
+            if (endpoint.ready == Boolean.TRUE) {
+                known = true;
+                usable += endpoint.freeSlots + endpoint.activeAtPoll;
+            }
+        }
+        return known ? usable : -1;
+    }
+
+    /**
+     * Per endpoint: sessions created, refusals, open sessions, last polled free/total slots and
+     * new-session time (mean, p50, p95, max in ms)
+     */
+    public static Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints.values()) {
+            long[] sorted = endpoint.newSessionNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("sessions", sorted.length);
+            values.put("refused", endpoint.failures.get());
+            values.put("active", endpoint.active.get());
+            values.put("freeSlots", endpoint.freeSlots);
+            values.put("totalSlots", endpoint.totalSlots);
+            values.put("newSessionMeanMs", Arrays.stream(sorted).average().orElse(0) / 1_000_000);
+            values.put("newSessionP50Ms", DriverCreationMetrics.percentile(sorted, 50) / 1_000_000);
+            values.put("newSessionP95Ms", DriverCreationMetrics.percentile(sorted, 95) / 1_000_000);
+            values.put("newSessionMaxMs", sorted.length > 0 ? sorted[sorted.length - 1] / 1_000_000 : 0);
+            stats.put(endpoint.url, values);
+        }
+        return stats;
+    }
+
+    public static void logStatistics() {
+        getStatistics().forEach((url, values) -> LogUtil.info("Grid endpoint " + url + ": " + values));
+    }
+
+    /**
+     * Forget cached status and counters (between suites, or when grid.urls changes)
+     */
+    public static void reset() {
+        endpoints.clear();
+        leases.clear();
+    }
+
+    private static Endpoint endpoint(String url) {
+        return endpoints.computeIfAbsent(url, Endpoint::new);
+    }
+
+    private static int tier(Endpoint endpoint) {
+        if (System.currentTimeMillis() < endpoint.cooldownUntil || endpoint.ready == Boolean.FALSE) {
+            return 2;
+        }
+        return endpoint.ready == null ? 1 : 0;
+    }
+
+    private static int estimatedFreeSlots(Endpoint endpoint) {
+        return endpoint.freeSlots - endpoint.startedSincePoll() - endpoint.pending.get();
+    }
+
+    private static void refreshStatus(Endpoint endpoint) {
+        long now = System.currentTimeMillis();
+        if (now - endpoint.polledAt < ConfigReader.getInt("grid.status.cache.ms", 2000)) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.url + "/status"))
+                    .timeout(Duration.ofMillis(ConfigReader.getInt("grid.status.timeout.ms", 3000)))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            JsonNode value = mapper.readTree(response.body()).path("value");
+            int free = 0;
+            int total = 0;
+            for (JsonNode node : value.path("nodes")) {
+                if (!"UP".equalsIgnoreCase(node.path("availability").asText("UP"))) {
+                    continue;
+                }
+                for (JsonNode slot : node.path("slots")) {
+                    total++;
+                    if (slot.path("session").isMissingNode() || slot.path("session").isNull()) {
+                        free++;
+                    }
+                }
+            }
+            endpoint.ready = value.path("ready").asBoolean(false);
+            endpoint.freeSlots = free;
+            endpoint.totalSlots = total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            endpoint.ready = null;
+        } catch (Exception e) {
+            LogUtil.debug("Could not read status of Grid endpoint " + endpoint.url + ": " + e.getMessage());
+            endpoint.ready = null;
+            endpoint.freeSlots = 0;
+        }
+        endpoint.polledAt = now;
+        endpoint.activeAtPoll = endpoint.active.get();
+    }
+
+    private static URL toUrl(String url) {
+        try {
+            return new URL(url);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("Invalid Grid URL: " + url, e);
+        }
+    }
+
+    private static class Endpoint {
+        private final String url;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final Queue<Long> newSessionNanos = new ConcurrentLinkedQueue<>();
+        private volatile Boolean ready;
+        private volatile int freeSlots;
+        private volatile int totalSlots;
+        private volatile int activeAtPoll;
+        private volatile long polledAt;
+        private volatile long cooldownUntil;
+
+        private Endpoint(String url) {
+            this.url = url;
+        }
+
+        // Sessions opened here after the last poll are not yet reflected in freeSlots
+        private int startedSincePoll() {
+            return Math.max(0, active.get() - activeAtPoll);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package driver;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+import utils.LogUtil;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+/**
+ * WebDriver handle that only starts a browser the first time a WebDriver method is called.
+ * Tests that never touch the driver (e.g. API tests) never pay for a session.
+ */
+public class LazyDriver implements InvocationHandler {
+    private static final Class<?>[] INTERFACES = {
+            WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class,
+            HasCapabilities.class, Interactive.class, WrapsDriver.class
+    };
+
+    private final Supplier<WebDriver> factory;
+    private volatile WebDriver delegate;
+
+    private LazyDriver(Supplier<WebDriver> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Create a lazy handle; the factory runs on the first WebDriver call
+     */
+    public static WebDriver create(Supplier<WebDriver> factory) {
+        return (WebDriver) Proxy.newProxyInstance(LazyDriver.class.getClassLoader(), INTERFACES, new LazyDriver(factory));
+    }
+
+    /**
+     * Whether a browser session is behind this driver. Non-lazy drivers are always considered started.
+     */
+    public static boolean isStarted(WebDriver driver) {
+        if (driver == null) {
+            return false;
+        }
+        if (Proxy.isProxyClass(driver.getClass()) && Proxy.getInvocationHandler(driver) instanceof LazyDriver) {
+            return ((LazyDriver) Proxy.getInvocationHandler(driver)).delegate != null;
+        }
+        return true;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "LazyDriver(" + (delegate != null ? delegate : "not started") + ")";
+            }
+        }
+
+        // Nothing to close if the browser was never started
+        if (delegate == null && ("quit".equals(method.getName()) || "close".equals(method.getName()))) {
+            return null;
+        }
+
+        WebDriver target = start();
+        if ("getWrappedDriver".equals(method.getName()) && method.getDeclaringClass() == WrapsDriver.class) {
+            return target;
+        }
+        if (!method.getDeclaringClass().isInstance(target)) {
+            throw new UnsupportedOperationException(target.getClass().getSimpleName()
+                    + " does not implement " + method.getDeclaringClass().getSimpleName());
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private WebDriver start() {
+        WebDriver current = delegate;
+        if (current == null) {
+            synchronized (this) {
+                current = delegate;
+                if (current == null) {
+                    LogUtil.info("First WebDriver call, starting browser session");
+                    current = factory.get();
+                    delegate = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -121,7 +121,7 @@ public class MobileDriverFactory {
     
     private static void setupDriver(AppiumDriver driver) {
         // Set timeouts
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getImplicitWait()));
         
         // Log device information
         LogUtil.info("Platform: " + driver.getCapabilities().getCapability("platformName"));
@@ -0,0 +1,187 @@
+package driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import utils.ConfigReader;
+import utils.ExecutionContext;
+import utils.LogUtil;
+import utils.PerformanceUtil;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP transport for RemoteWebDriver sessions (Grid hubs and long-lived local driver services).
+ * All sessions to the same server share one HTTP client, and so one keep-alive connection pool,
+ * with connect/read timeouts from remote.connect.timeout and remote.read.timeout. Every command's
+ * round trip is timed per endpoint template (e.g. "POST /session/{id}/element").
+ */
+public class RemoteClientConfig {
+    public static final String COMMAND_TIME_METRIC = "remoteCommandMs";
+    public static final String COMMAND_COUNT_METRIC = "remoteCommands";
+
+    private static final String SUMMARY_FILE = "remote-command-latency.json";
+    // Session, element and shadow root ids in command paths; window and frame segments are fixed
+    // command names (/window/rect, /frame/parent) and /element/active is not an id
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/(session|element|shadow)/(?!active(?:/|$))[^/]+");
+
+    private static final Map<String, HttpClient> sharedClients = new ConcurrentHashMap<>();
+    private static final Map<String, Queue<Long>> commandNanos = new ConcurrentHashMap<>();
+    private static final HttpClient.Factory sharedFactory = new SharedClientFactory();
+
+    /**
+     * Client configuration for a WebDriver server: tuned timeouts plus command latency recording
+     */
+    public static ClientConfig forServer(URL url) {
+        ClientConfig config = ClientConfig.defaultConfig()
+                .baseUrl(url)
+                .connectionTimeout(Duration.ofSeconds(ConfigReader.getInt("remote.connect.timeout", 10)))
+                .readTimeout(Duration.ofSeconds(ConfigReader.getInt("remote.read.timeout", 180)));
+        if (ConfigReader.getBoolean("remote.command.latency.enabled", true)) {
+            config = config.withFilter(latencyFilter());
+        }
+        return config;
+    }
+
+    /**
+     * Open a session whose commands go through the shared client for the server
+     */
+    public static RemoteWebDriver createDriver(URL url, Capabilities capabilities) {
+        HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), forServer(url), sharedFactory);
+        return new RemoteWebDriver(executor, capabilities);
+    }
+
+    /**
+     * Per endpoint template: count, mean, p50, p95, p99 and max round trip in milliseconds
+     */
+    public static Map<String, Map<String, Object>> getSummary() {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        commandNanos.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("count", sorted.length);
+                    stats.put("meanMs", toMillis((long) Arrays.stream(sorted).average().orElse(0)));
+                    stats.put("p50Ms", toMillis(DriverCreationMetrics.percentile(sorted, 50)));
+                    stats.put("p95Ms", toMillis(DriverCreationMetrics.percentile(sorted, 95)));
+                    stats.put("p99Ms", toMillis(DriverCreationMetrics.percentile(sorted, 99)));
+                    stats.put("maxMs", toMillis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+                    summary.put(entry.getKey(), stats);
+                });
+        return summary;
+    }
+
+    /**
+     * Write the summary to target/performance-results/remote-command-latency.json
+     */
+    public static void writeSummary() {
+        if (commandNanos.isEmpty()) {
+            return;
+        }
+        Path path = PerformanceUtil.getResultsDirectory().resolve(SUMMARY_FILE);
+        try {
+            Files.createDirectories(path.getParent());
+            new ObjectMapper()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(path.toFile(), getSummary());
+            LogUtil.info("Remote command latency summary written: " + path);
+        } catch (IOException e) {
+            LogUtil.error("Failed to write remote command latency summary", e);
+        }
+    }
+
+    /**
+     * Close the shared HTTP clients once no session uses them any more
+     */
+    public static void shutdown() {
+        for (String key : sharedClients.keySet()) {
+            HttpClient client = sharedClients.remove(key);
+            if (client != null) {
+                try {
+                    client.close();
+                } catch (Exception e) {
+                    LogUtil.debug("Error closing shared HTTP client: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    static String commandKey(HttpRequest request) {
+        return request.getMethod() + " " + ID_SEGMENT.matcher(request.getUri()).replaceAll("/$1/{id}");
+    }
+
+    private static Filter latencyFilter() {
+        return next -> request -> {
+            long start = System.nanoTime();
+            try {
+                return next.execute(request);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                commandNanos.computeIfAbsent(commandKey(request), k -> new ConcurrentLinkedQueue<>()).add(nanos);
+                ExecutionContext context = ExecutionContext.current();
+                if (context != null) {
+                    context.recordMetric(COMMAND_TIME_METRIC, nanos / 1_000_000);
+                    context.recordMetric(COMMAND_COUNT_METRIC, 1);
+                }
+            }
+        };
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1000.0;
+    }
+
+    // One client per server and timeout settings; sessions get a view whose close() leaves it open
+    private static class SharedClientFactory implements HttpClient.Factory {
+        private final HttpClient.Factory delegate = HttpClient.Factory.createDefault();
+
+        @Override
+        public HttpClient createClient(ClientConfig config) {
+            String key = config.baseUri() + "|" + config.connectionTimeout() + "|" + config.readTimeout();
+            HttpClient shared = sharedClients.computeIfAbsent(key, k -> delegate.createClient(config));
+            return new HttpClient() {
+                @Override
+                public HttpResponse execute(HttpRequest request) {
+                    return shared.execute(request);
+                }
+
+                @Override
+                public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+                    return shared.openSocket(request, listener);
+                }
+
+                @Override
+                public void close() {
+                    // Shared with other sessions, closed by RemoteClientConfig.shutdown()
+                }
+            };
+        }
+
+        @Override
+        public void cleanupIdleClients() {
+            delegate.cleanupIdleClients();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package pages;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import utils.ConfigReader;
+import utils.LogUtil;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FieldDecorator whose @FindBy fields keep the element they resolved instead of calling
+ * findElement on every access. A stale element means the page navigated or re-rendered: every
+ * cached field of the page object is dropped and the call is retried once on a fresh lookup.
+ * List fields are not cached: each call on the list looks the elements up again, so size() and
+ * iteration see navigation and new rows, and waits polling a List field see new elements.
+ * Hit rates are kept per page object class (element.cache.enabled). LocatorPrefetcher can fill
+ * the cache for all fields at once.
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+    private static final Map<String, CacheStats> stats = new ConcurrentHashMap<>();
+
+    private final CacheStats pageStats;
+    private final Map<Field, Seedable> fields = new LinkedHashMap<>();
+    private Field decorating;
+    // Bumped on staleness; entries cached under an older generation are looked up again
+    private int generation;
+
+    public CachingFieldDecorator(ElementLocatorFactory factory, Object page) {
+        super(factory);
+        this.pageStats = stats.computeIfAbsent(page.getClass().getSimpleName(), k -> new CacheStats());
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("element.cache.enabled", true);
+    }
+
+    /**
+     * Per page object class: lookups, hits, misses, stale refreshes, prefetched fields and hit rate
+     */
+    public static Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> summary = new TreeMap<>();
+        stats.forEach((page, pageStats) -> summary.put(page, pageStats.toMap()));
+        return summary;
+    }
+
+    public static void logStatistics() {
+        if (!stats.isEmpty()) {
+            LogUtil.info("Page element cache statistics: " + getStatistics());
+        }
+    }
+
+    @Override
+    public Object decorate(ClassLoader loader, Field field) {
+        decorating = field;
+        try {
+            return super.decorate(loader, field);
+        } finally {
+            decorating = null;
+        }
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        ElementHandler handler = register(new ElementHandler(locator));
+        return (WebElement) Proxy.newProxyInstance(loader,
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class}, handler);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<WebElement> proxyForListLocator(ClassLoader loader, ElementLocator locator) {
+        ListHandler handler = register(new ListHandler(locator));
+        return (List<WebElement>) Proxy.newProxyInstance(loader, new Class<?>[]{List.class}, handler);
+    }
+
+    /**
+     * Fields decorated with a caching proxy, in declaration order
+     */
+    List<Field> getDecoratedFields() {
+        return new ArrayList<>(fields.keySet());
+    }
+
+    /**
+     * Cache elements resolved elsewhere for a field; empty results leave the field to its lazy lookup
+     */
+    boolean seed(Field field, List<WebElement> elements) {
+        Seedable handler = fields.get(field);
+        if (handler == null || elements.isEmpty()) {
+            return false;
+        }
+        handler.seed(elements);
+        pageStats.prefetched.incrementAndGet();
+        return true;
+    }
+
+    private <T extends Seedable> T register(T handler) {
+        if (decorating != null) {
+            fields.put(decorating, handler);
+        }
+        return handler;
+    }
+
+    private void stale() {
+        generation++;
+        pageStats.stale.incrementAndGet();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Seedable {
+        void seed(List<WebElement> elements);
+    }
+
+    private class ElementHandler implements InvocationHandler, Seedable {
+        private final ElementLocator locator;
+        private WebElement cached;
+        private int cachedGeneration;
+
+        private ElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        private WebElement resolve() {
+            if (cached != null && cachedGeneration == generation) {
+                pageStats.hits.incrementAndGet();
+                return cached;
+            }
+            pageStats.misses.incrementAndGet();
+            cached = locator.findElement();
+            cachedGeneration = generation;
+            return cached;
+        }
+
+        @Override
+        public void seed(List<WebElement> elements) {
+            cached = elements.get(0);
+            cachedGeneration = generation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName())) {
+                return "Cached proxy element for: " + locator;
+            }
+            WebElement element = resolve();
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return CachingFieldDecorator.invoke(element, method, args);
+            } catch (StaleElementReferenceException e) {
+                stale();
+                return CachingFieldDecorator.invoke(resolve(), method, args);
+            }
+        }
+    }
+
+    // List fields are looked up on every call: size(), isEmpty() and iteration never touch an
+    // element, so a cached list could not notice navigation or added rows. A prefetched list
+    // serves only the first call.
+    private class ListHandler implements InvocationHandler, Seedable {
+        private final ElementLocator locator;
+        private List<WebElement> seeded;
+
+        private ListHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        private List<WebElement> resolve() {
+            List<WebElement> elements = seeded;
+            if (elements != null) {
+                seeded = null;
+                pageStats.hits.incrementAndGet();
+                return elements;
+            }
+            pageStats.misses.incrementAndGet();
+            return locator.findElements();
+        }
+
+        @Override
+        public void seed(List<WebElement> elements) {
+            seeded = elements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName())) {
+                return "Proxy element list for: " + locator;
+            }
+            List<WebElement> elements = resolve();
+            // Elements are wrapped as they are read, so get(i) loops stay linear
+            List<WebElement> wrapped = new AbstractList<WebElement>() {
+                @Override
+                public WebElement get(int index) {
+                    return (WebElement) Proxy.newProxyInstance(CachingFieldDecorator.class.getClassLoader(),
+                            new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                            new ListElementHandler(ListHandler.this, index, elements.get(index)));
+                }
+
+                @Override
+                public int size() {
+                    return elements.size();
+                }
+            };
+            return CachingFieldDecorator.invoke(wrapped, method, args);
+        }
+    }
+
+    // An element of a list field; after staleness it retries on the same index of a fresh lookup
+    private class ListElementHandler implements InvocationHandler {
+        private final ListHandler list;
+        private final int index;
+        private final WebElement element;
+
+        private ListElementHandler(ListHandler list, int index, WebElement element) {
+            this.list = list;
+            this.index = index;
+            this.element = element;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName())) {
+                return element.toString();
+            }
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return CachingFieldDecorator.invoke(element, method, args);
+            } catch (StaleElementReferenceException e) {
+                stale();
+                List<WebElement> fresh = list.resolve();
+                if (index >= fresh.size()) {
+                    throw e;
+                }
+                return CachingFieldDecorator.invoke(fresh.get(index), method, args);
+            }
+        }
+    }
+
+    private static class CacheStats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong stale = new AtomicLong();
+        private final AtomicLong prefetched = new AtomicLong();
+
+        private Map<String, Object> toMap() {
+            long hitCount = hits.get();
+            long lookups = hitCount + misses.get();
+            Map<String, Object> map = new HashMap<>();
+            map.put("lookups", lookups);
+            map.put("hits", hitCount);
+            map.put("misses", misses.get());
+            map.put("stale", stale.get());
+            map.put("prefetched", prefetched.get());
+            map.put("hitRate", lookups > 0 ? (double) hitCount / lookups : 0.0);
+            return map;
+        }
+    }
+}
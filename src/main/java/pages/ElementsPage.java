@@ -3,7 +3,6 @@ package pages;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.Select;
 import utils.WaitUtil;
 
@@ -17,7 +16,7 @@ public class ElementsPage {
     public ElementsPage(WebDriver driver) {
         this.driver = driver;
         this.actions = new Actions(driver);
-        PageFactory.initElements(driver, this);
+        SmartLocator.initElements(driver, this);
     }
 
     // Alerts
@@ -44,15 +43,19 @@ public class ElementsPage {
     }
 
     // Popups (using modal dialogs)
+    // Lists so that checking for an absent modal does not wait
     @FindBy(css = ".modal-dialog")
-    private WebElement modalDialog;
+    private List<WebElement> modalDialog;
     @FindBy(css = ".modal-footer button")
     private List<WebElement> modalButtons;
     public boolean isModalDisplayed() {
-        return modalDialog.isDisplayed();
+        return SmartLocator.isDisplayedNow(modalDialog);
+    }
+    public boolean isModalClosed() {
+        return SmartLocator.waitUntilGone(driver, modalDialog);
     }
     public void closeModal() {
-        for (WebElement btn : modalButtons) {
+        for (WebElement btn : SmartLocator.waitForAny(driver, modalButtons)) {
             if (btn.getText().equalsIgnoreCase("Close") || btn.getText().equalsIgnoreCase("OK")) {
                 btn.click();
                 break;
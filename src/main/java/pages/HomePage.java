@@ -11,12 +11,13 @@ public class HomePage {
 
     public HomePage(WebDriver driver) {
         this.driver = driver;
+        SmartLocator.initElements(driver, this);
     }
 
     @FindBy(css = ".card-body h5")
     List<WebElement> cards;
     public void clickOnCard(String cardName) {
-        for (WebElement card : cards) {
+        for (WebElement card : SmartLocator.waitForAny(driver, cards)) {
             if (card.getText().equalsIgnoreCase(cardName)) {
                 card.click();
                 return;
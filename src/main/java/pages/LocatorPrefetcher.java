@@ -0,0 +1,157 @@
+package pages;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.ExecutesDriverScript;
+import org.openqa.selenium.By;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.RemoteWebElement;
+import utils.ConfigReader;
+import utils.LogUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves every locator of a page object in one round trip and seeds CachingFieldDecorator
+ * (element.prefetch.enabled). Web pages use one executeScript call; native Appium sessions use one
+ * execute-driver script, which needs the server's execute_driver_script feature enabled. Fields
+ * whose locator cannot be sent (e.g. @FindAll) or that are not on screen yet stay lazy.
+ */
+public class LocatorPrefetcher {
+    private static final String SCRIPT = loadScript();
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("element.prefetch.enabled", false);
+    }
+
+    /**
+     * Resolve all decorated fields of the page at once; returns the number of fields seeded
+     */
+    public static int prefetch(WebDriver driver, CachingFieldDecorator decorator, Function<Field, By> byBuilder) {
+        List<Field> fields = new ArrayList<>();
+        List<List<String>> locators = new ArrayList<>();
+        for (Field field : decorator.getDecoratedFields()) {
+            By by;
+            try {
+                by = byBuilder.apply(field);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (by instanceof By.Remotable) {
+                By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+                fields.add(field);
+                locators.add(List.of(parameters.using(), String.valueOf(parameters.value())));
+            }
+        }
+        if (locators.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        List<?> results;
+        try {
+            results = isNativeApp(driver) ? findWithDriverScript(driver, locators) : findWithScript(driver, locators);
+        } catch (WebDriverException e) {
+            LogUtil.debug("Locator prefetch unavailable (" + e.getClass().getSimpleName() + "), fields resolve lazily");
+            return 0;
+        }
+        if (results == null) {
+            return 0;
+        }
+
+        int seeded = 0;
+        for (int i = 0; i < fields.size() && i < results.size(); i++) {
+            if (decorator.seed(fields.get(i), toElements(driver, results.get(i)))) {
+                seeded++;
+            }
+        }
+        LogUtil.debug("Prefetched " + seeded + " of " + locators.size() + " locators in "
+                + (System.currentTimeMillis() - start) + "ms");
+        return seeded;
+    }
+
+    private static boolean isNativeApp(WebDriver driver) {
+        if (!(driver instanceof AppiumDriver)) {
+            return false;
+        }
+        Object browserName = ((HasCapabilities) driver).getCapabilities().getBrowserName();
+        return browserName == null || browserName.toString().isEmpty();
+    }
+
+    private static List<?> findWithScript(WebDriver driver, List<List<String>> locators) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, locators);
+        return result instanceof List ? (List<?>) result : null;
+    }
+
+    private static List<?> findWithDriverScript(WebDriver driver, List<List<String>> locators) {
+        if (!(driver instanceof ExecutesDriverScript)) {
+            return null;
+        }
+        String json;
+        try {
+            json = mapper.writeValueAsString(locators);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize locators", e);
+        }
+        // Runs on the Appium server: N lookups cost one HTTP round trip from the test
+        String script = "const found = [];\n"
+                + "for (const [using, value] of " + json + ") {\n"
+                + "    try { found.push(await driver.findElements(using, value)); } catch (e) { found.push(null); }\n"
+                + "}\n"
+                + "return found;";
+        Object result = ((ExecutesDriverScript) driver).executeDriverScript(script).getResult();
+        return result instanceof List ? (List<?>) result : null;
+    }
+
+    private static List<WebElement> toElements(WebDriver driver, Object result) {
+        List<WebElement> elements = new ArrayList<>();
+        if (!(result instanceof List)) {
+            return elements;
+        }
+        for (Object item : (List<?>) result) {
+            if (item instanceof WebElement) {
+                elements.add((WebElement) item);
+            } else if (item instanceof Map && driver instanceof RemoteWebDriver) {
+                // Driver script results may come back as raw W3C element references
+                Map<?, ?> reference = (Map<?, ?>) item;
+                Object id = reference.containsKey(ELEMENT_KEY) ? reference.get(ELEMENT_KEY) : reference.get("ELEMENT");
+                if (id != null) {
+                    RemoteWebElement element = new RemoteWebElement();
+                    element.setParent((RemoteWebDriver) driver);
+                    element.setId(id.toString());
+                    elements.add(element);
+                }
+            }
+        }
+        return elements;
+    }
+
+    private static String loadScript() {
+        try (InputStream in = LocatorPrefetcher.class.getClassLoader().getResourceAsStream("js/bulk-find.js")) {
+            if (in == null) {
+                throw new IllegalStateException("js/bulk-find.js not found on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load bulk find script", e);
+        }
+    }
+}
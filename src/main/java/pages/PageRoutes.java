@@ -0,0 +1,96 @@
+package pages;
+
+import utils.ConfigReader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of direct URLs for application pages, so tests can open their target page in one
+ * navigation instead of clicking through the home page cards and side menu.
+ * Any route path can be overridden with a route.&lt;name&gt; property.
+ */
+public class PageRoutes {
+    private static final Map<String, String> routes = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, String> pageRoutes = new ConcurrentHashMap<>();
+
+    static {
+        // Home page cards
+        register("home", "/");
+        register("elements", "/elements");
+        register("forms", "/forms");
+        register("alerts-windows", "/alertsWindows");
+        register("widgets", "/widgets");
+        register("interactions", "/interaction");
+        register("books", "/books");
+
+        // Elements
+        register("text-box", "/text-box");
+        register("check-box", "/checkbox");
+        register("radio-button", "/radio-button");
+        register("web-tables", "/webtables");
+        register("buttons", "/buttons");
+        register("upload-download", "/upload-download");
+        register("dynamic-properties", "/dynamic-properties");
+
+        // Alerts, Frame & Windows
+        register("browser-windows", "/browser-windows");
+        register("alerts", "/alerts");
+        register("frames", "/frames");
+        register("modal-dialogs", "/modal-dialogs");
+
+        // Widgets
+        register("tool-tips", "/tool-tips");
+        register("select-menu", "/select-menu");
+
+        // Interactions
+        register("sortable", "/sortable");
+        register("resizable", "/resizable");
+        register("droppable", "/droppable");
+
+        // Page objects
+        register(HomePage.class, "home");
+        register(ElementsPage.class, "elements");
+    }
+
+    public static void register(String name, String path) {
+        routes.put(name, path);
+    }
+
+    public static void register(Class<?> page, String routeName) {
+        pageRoutes.put(page, routeName);
+    }
+
+    public static boolean hasRoute(String name) {
+        return routes.containsKey(name);
+    }
+
+    /**
+     * Absolute URL for a named route
+     */
+    public static String urlFor(String name) {
+        String path = ConfigReader.get("route." + name, routes.get(name));
+        if (path == null) {
+            throw new IllegalArgumentException("No route registered for: " + name);
+        }
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            return path;
+        }
+        String baseUrl = ConfigReader.getBaseUrl();
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    /**
+     * Absolute URL for a page object class
+     */
+    public static String urlFor(Class<?> page) {
+        String name = pageRoutes.get(page);
+        if (name == null) {
+            throw new IllegalArgumentException("No route registered for page: " + page.getSimpleName());
+        }
+        return urlFor(name);
+    }
+}
@@ -0,0 +1,226 @@
+package pages;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.internal.CapabilityHelpers;
+import io.appium.java_client.pagefactory.AppiumElementLocatorFactory;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.DefaultElementByBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.ui.FluentWait;
+import utils.ConfigReader;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Element lookup for page objects when the driver runs with a zero implicit wait
+ * (smart.locator.enabled). A single element field waits, by polling, only until it is present;
+ * a List field returns whatever is there right now, so absence checks cost one round trip
+ * instead of the implicit wait. Page methods that assert a state wait for exactly that state.
+ */
+public class SmartLocator {
+
+    public static boolean isEnabled() {
+        return ConfigReader.isSmartLocatorEnabled();
+    }
+
+    public static Duration getTimeout() {
+        return Duration.ofSeconds(ConfigReader.getInt("explicit.wait", 20));
+    }
+
+    public static Duration getPollingInterval() {
+        return Duration.ofMillis(ConfigReader.getInt("smart.locator.poll.ms", 100));
+    }
+
+    /**
+     * PageFactory.initElements through the smart locators, or the default ones when the mode is off;
+     * fields cache their elements when element.cache.enabled is set and are resolved up front in
+     * one script call when element.prefetch.enabled is set
+     */
+    public static void initElements(WebDriver driver, Object page) {
+        ElementLocatorFactory factory = isEnabled() ? new Factory(driver) : new DefaultElementLocatorFactory(driver);
+        if (CachingFieldDecorator.isEnabled()) {
+            CachingFieldDecorator decorator = new CachingFieldDecorator(factory, page);
+            PageFactory.initElements(decorator, page);
+            if (LocatorPrefetcher.isEnabled()) {
+                LocatorPrefetcher.prefetch(driver, decorator, field -> new Annotations(field).buildBy());
+            }
+        } else {
+            PageFactory.initElements(new DefaultFieldDecorator(factory), page);
+        }
+    }
+
+    /**
+     * initElements for Appium page objects (@AndroidFindBy, @iOSXCUITFindBy). With smart locators
+     * each lookup is a single attempt and the page's explicit waits do the polling.
+     */
+    public static void initElements(AppiumDriver driver, Object page) {
+        Duration lookupTimeout = isEnabled() ? Duration.ZERO : AppiumFieldDecorator.DEFAULT_WAITING_TIMEOUT;
+        if (!CachingFieldDecorator.isEnabled()) {
+            PageFactory.initElements(new AppiumFieldDecorator(driver, lookupTimeout), page);
+            return;
+        }
+        // Same platform/automation lookup as AppiumFieldDecorator
+        Capabilities capabilities = driver.getCapabilities();
+        String platform = CapabilityHelpers.getCapability(capabilities, "platformName", String.class);
+        String automation = CapabilityHelpers.getCapability(capabilities, "automationName", String.class);
+        CachingFieldDecorator decorator = new CachingFieldDecorator(
+                new AppiumElementLocatorFactory(driver, lookupTimeout, new DefaultElementByBuilder(platform, automation)), page);
+        PageFactory.initElements(decorator, page);
+        if (LocatorPrefetcher.isEnabled()) {
+            LocatorPrefetcher.prefetch(driver, decorator, field -> {
+                DefaultElementByBuilder builder = new DefaultElementByBuilder(platform, automation);
+                builder.setAnnotated(field);
+                return builder.buildBy();
+            });
+        }
+    }
+
+    /**
+     * Whether an element field is displayed, without an explicit wait (only the field's own lookup)
+     */
+    public static boolean isDisplayedNow(WebElement element) {
+        try {
+            return element.isDisplayed();
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether the first element of a List field is displayed, without waiting
+     */
+    public static boolean isDisplayedNow(List<WebElement> elements) {
+        try {
+            return !elements.isEmpty() && elements.get(0).isDisplayed();
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wait until the first element of a List field is displayed; false once the timeout passes
+     */
+    public static boolean waitUntilDisplayed(WebDriver driver, List<WebElement> elements) {
+        return waitFor(driver, d -> isDisplayedNow(elements));
+    }
+
+    /**
+     * Wait until no element of a List field is displayed; returns immediately when none is there
+     */
+    public static boolean waitUntilGone(WebDriver driver, List<WebElement> elements) {
+        return waitFor(driver, d -> !isDisplayedNow(elements));
+    }
+
+    /**
+     * Wait until a List field has at least one element and return them
+     */
+    public static List<WebElement> waitForAny(WebDriver driver, List<WebElement> elements) {
+        waitFor(driver, d -> !elements.isEmpty());
+        return elements;
+    }
+
+    private static boolean waitFor(WebDriver driver, Function<WebDriver, Boolean> condition) {
+        if (condition.apply(driver)) {
+            return true;
+        }
+        try {
+            return new FluentWait<>(driver)
+                    .withTimeout(getTimeout())
+                    .pollingEvery(getPollingInterval())
+                    .ignoring(NoSuchElementException.class)
+                    .ignoring(StaleElementReferenceException.class)
+                    .until(condition);
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Locator factory for PageFactory's DefaultFieldDecorator
+     */
+    public static class Factory implements ElementLocatorFactory {
+        private final SearchContext searchContext;
+
+        public Factory(SearchContext searchContext) {
+            this.searchContext = searchContext;
+        }
+
+        @Override
+        public ElementLocator createLocator(Field field) {
+            return new Locator(searchContext, new Annotations(field));
+        }
+    }
+
+    private static class Locator implements ElementLocator {
+        private final SearchContext searchContext;
+        private final By by;
+        private final boolean cacheLookup;
+        private WebElement cachedElement;
+        private List<WebElement> cachedElements;
+
+        private Locator(SearchContext searchContext, Annotations annotations) {
+            this.searchContext = searchContext;
+            this.by = annotations.buildBy();
+            this.cacheLookup = annotations.isLookupCached();
+        }
+
+        @Override
+        public WebElement findElement() {
+            if (cachedElement != null) {
+                return cachedElement;
+            }
+            WebElement element;
+            try {
+                // Present already: no waiting at all
+                element = searchContext.findElement(by);
+            } catch (NoSuchElementException e) {
+                try {
+                    element = new FluentWait<>(searchContext)
+                            .withTimeout(getTimeout())
+                            .pollingEvery(getPollingInterval())
+                            .ignoring(NoSuchElementException.class)
+                            .until(context -> context.findElement(by));
+                } catch (TimeoutException timeout) {
+                    throw new NoSuchElementException("Element not found within " + getTimeout().getSeconds() + "s: " + by, timeout);
+                }
+            }
+            if (cacheLookup) {
+                cachedElement = element;
+            }
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            if (cachedElements != null) {
+                return cachedElements;
+            }
+            List<WebElement> elements = searchContext.findElements(by);
+            if (cacheLookup) {
+                cachedElements = elements;
+            }
+            return elements;
+        }
+
+        @Override
+        public String toString() {
+            return "SmartLocator '" + by + "'";
+        }
+    }
+}
@@ -3,9 +3,9 @@ package pages;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import io.appium.java_client.pagefactory.iOSXCUITFindBy;
-import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import utils.LogUtil;
@@ -19,7 +19,7 @@ public class WikipediaHomePage {
     public WikipediaHomePage(AppiumDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(new AppiumFieldDecorator(driver), this);
+        SmartLocator.initElements(driver, this);
     }
 
     // Search elements
@@ -82,8 +82,12 @@ public class WikipediaHomePage {
 
     public void clearSearch() {
         LogUtil.info("Clearing search");
-        if (searchCloseButton.isDisplayed()) {
-            searchCloseButton.click();
+        try {
+            if (searchCloseButton.isDisplayed()) {
+                searchCloseButton.click();
+            }
+        } catch (NoSuchElementException e) {
+            LogUtil.debug("Search is already clear");
         }
     }
 
@@ -127,11 +131,34 @@ public class WikipediaHomePage {
     }
 
     public boolean isSearchContainerDisplayed() {
-        return searchContainer.isDisplayed();
+        return SmartLocator.isDisplayedNow(searchContainer);
     }
 
     public boolean isArticleLoaded() {
-        return articleTitle.isDisplayed() && articleContent.isDisplayed();
+        return SmartLocator.isDisplayedNow(articleTitle) && SmartLocator.isDisplayedNow(articleContent);
+    }
+
+    /**
+     * Wait for the search container to appear; false after 10 seconds
+     */
+    public boolean waitForSearchContainer() {
+        return waitUntilShown(searchContainer);
+    }
+
+    /**
+     * Wait for the article title and content to appear; false after 10 seconds
+     */
+    public boolean waitForArticle() {
+        return waitUntilShown(articleTitle) && waitUntilShown(articleContent);
+    }
+
+    private boolean waitUntilShown(WebElement element) {
+        try {
+            wait.until(ExpectedConditions.visibilityOf(element));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
     }
 
     // Gesture methods
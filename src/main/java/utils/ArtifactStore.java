@@ -0,0 +1,203 @@
+package utils;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed store for screenshots and baselines (artifact.store.path). Each distinct image
+ * is kept once as objects/ab/abcd...png, named by its SHA-256; captures under target/ are hard links
+ * to that object, so a byte-identical capture from a retry, another browser or the next data row
+ * costs a directory entry instead of another PNG. Where hard links are unsupported the file is
+ * copied. Files outside the build output, such as baselines in the source tree, are saved as copies
+ * (saveCopy): they get edited in place, which would change the shared object.
+ * index.tsv records one line per capture: test, step, browser and hash.
+ */
+public class ArtifactStore {
+    private static final String INDEX_FILE = "index.tsv";
+    private static final AtomicLong stored = new AtomicLong();
+    private static final AtomicLong deduplicated = new AtomicLong();
+    private static final AtomicLong bytesSaved = new AtomicLong();
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("artifact.store.enabled", true);
+    }
+
+    public static Path getRoot() {
+        return Paths.get(ConfigReader.get("artifact.store.path", "target/artifact-store/"));
+    }
+
+    /**
+     * Store the image's bytes and link them at target; returns target
+     */
+    public static Path save(byte[] content, Path target, String test, String step, String browser) throws IOException {
+        return save(getRoot(), content, target, test, step, browser, true);
+    }
+
+    /**
+     * Store the image's bytes and write an independent copy at target, for files that may be
+     * rewritten in place; returns target
+     */
+    public static Path saveCopy(byte[] content, Path target, String test, String step, String browser) throws IOException {
+        return save(getRoot(), content, target, test, step, browser, false);
+    }
+
+    public static Path save(Path root, byte[] content, Path target, String test, String step, String browser,
+                            boolean link) throws IOException {
+        String hash = sha256(content);
+        Path object = put(root, hash, content);
+        if (link) {
+            link(object, target);
+        } else {
+            createParent(target);
+            Files.copy(object, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        record(root, test, step, browser, hash);
+        return target;
+    }
+
+    /**
+     * Browser name of a session for index entries, "unknown" when the driver does not say
+     */
+    public static String browserOf(WebDriver driver) {
+        if (driver instanceof HasCapabilities) {
+            String name = ((HasCapabilities) driver).getCapabilities().getBrowserName();
+            if (name != null && !name.isEmpty()) {
+                return name;
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * Hash of the latest capture recorded for a test, step and browser, or null
+     */
+    public static String lookup(String test, String step, String browser) throws IOException {
+        return lookup(getRoot(), test, step, browser);
+    }
+
+    public static String lookup(Path root, String test, String step, String browser) throws IOException {
+        Path index = root.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return null;
+        }
+        String key = clean(test) + '\t' + clean(step) + '\t' + clean(browser) + '\t';
+        String hash = null;
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            // Lines are: epoch millis, test, step, browser, hash
+            int tab = line.indexOf('\t');
+            if (tab > 0 && line.startsWith(key, tab + 1)) {
+                hash = line.substring(tab + 1 + key.length());
+            }
+        }
+        return hash;
+    }
+
+    public static Path objectFor(String hash) {
+        return objectFor(getRoot(), hash);
+    }
+
+    public static Path objectFor(Path root, String hash) {
+        return root.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash + ".png");
+    }
+
+    public static Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("stored", stored.get());
+        statistics.put("deduplicated", deduplicated.get());
+        statistics.put("bytesSaved", bytesSaved.get());
+        return statistics;
+    }
+
+    public static void logStatistics() {
+        if (stored.get() + deduplicated.get() > 0) {
+            LogUtil.info("Artifact store: " + stored.get() + " images stored, " + deduplicated.get()
+                    + " duplicates linked, " + (bytesSaved.get() / 1024) + " KB saved");
+        }
+    }
+
+    private static Path put(Path root, String hash, byte[] content) throws IOException {
+        Path object = objectFor(root, hash);
+        if (Files.exists(object)) {
+            deduplicated.incrementAndGet();
+            bytesSaved.addAndGet(content.length);
+            return object;
+        }
+        Files.createDirectories(object.getParent());
+        Path temp = Files.createTempFile(object.getParent(), "object", ".tmp");
+        try {
+            Files.write(temp, content);
+            // Unlike rename, which silently replaces an existing file, a link fails when a concurrent
+            // writer stored the same content first
+            try {
+                Files.createLink(object, temp);
+            } catch (FileAlreadyExistsException e) {
+                throw e;
+            } catch (IOException | UnsupportedOperationException e) {
+                // No hard link support; move without REPLACE_EXISTING refuses an existing object too
+                Files.move(temp, object);
+            }
+            stored.incrementAndGet();
+        } catch (FileAlreadyExistsException e) {
+            deduplicated.incrementAndGet();
+            bytesSaved.addAndGet(content.length);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return object;
+    }
+
+    private static void link(Path object, Path target) throws IOException {
+        createParent(target);
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, object);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Different file system or no hard link support
+            Files.copy(object, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void createParent(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    private static synchronized void record(Path root, String test, String step, String browser, String hash) throws IOException {
+        Path index = root.resolve(INDEX_FILE);
+        Files.createDirectories(index.getParent());
+        String line = String.join("\t", String.valueOf(System.currentTimeMillis()),
+                clean(test), clean(step), clean(browser), hash);
+        Files.write(index, List.of(line), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String clean(String value) {
+        return value == null ? "" : value.replaceAll("[\t\r\n]", " ");
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+}
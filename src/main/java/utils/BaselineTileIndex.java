@@ -0,0 +1,188 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Sidecar index of per-tile content hashes for a visual baseline (name.png -> name.tiles.json).
+ * Comparing against a baseline then only hashes the actual screenshot's tiles; the baseline is
+ * decoded and compared pixel by pixel only for tiles whose hashes differ. The index records the
+ * baseline file's SHA-256 and is rebuilt when the baseline, visual.tile.size or visual.pyramid.scale
+ * changes. It also keeps the baseline downscaled by visual.pyramid.scale (mean RGB per block), which
+ * bounds the number of different pixels before the baseline is decoded at all.
+ */
+public class BaselineTileIndex {
+    private static final String SUFFIX = ".tiles.json";
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // Serialized fields; hashes are the tile hashes as big-endian longs, blocks the deflated
+    // RGB block means (both base64 in JSON)
+    public String baselineSha256;
+    public int width;
+    public int height;
+    public int tileSize;
+    public byte[] hashes;
+    public int blockSize;
+    public byte[] blocks;
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("visual.tile.index.enabled", true);
+    }
+
+    public static int getTileSize() {
+        return ConfigReader.getInt("visual.tile.size", 64);
+    }
+
+    public static int getBlockSize() {
+        return ConfigReader.getInt("visual.pyramid.scale", 8);
+    }
+
+    /**
+     * The index for a baseline image, building and saving it when missing or out of date
+     */
+    public static BaselineTileIndex load(Path baseline) throws IOException {
+        Path sidecar = sidecarFor(baseline);
+        String sha256 = sha256(baseline);
+        if (Files.exists(sidecar)) {
+            try {
+                BaselineTileIndex index = mapper.readValue(sidecar.toFile(), BaselineTileIndex.class);
+                if (sha256.equals(index.baselineSha256) && index.tileSize == getTileSize()
+                        && index.blockSize == getBlockSize() && index.blocks != null) {
+                    return index;
+                }
+            } catch (IOException e) {
+                LogUtil.warn("Ignoring unreadable tile index " + sidecar + ": " + e.getMessage());
+            }
+        }
+
+        BufferedImage image = ImageIO.read(baseline.toFile());
+        if (image == null) {
+            throw new IOException("Not a readable image: " + baseline);
+        }
+        BaselineTileIndex index = new BaselineTileIndex();
+        index.baselineSha256 = sha256;
+        index.width = image.getWidth();
+        index.height = image.getHeight();
+        index.tileSize = getTileSize();
+        index.blockSize = getBlockSize();
+        ImageComparator.Summary summary = ImageComparator.summarize(image, index.tileSize, index.blockSize);
+        index.hashes = toBytes(summary.getTileHashes());
+        index.blocks = deflate(summary.getBlockMeans());
+
+        Path temp = Files.createTempFile(sidecar.getParent(), "tiles", ".tmp");
+        mapper.writeValue(temp.toFile(), index);
+        Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LogUtil.info("Tile index written: " + sidecar);
+        return index;
+    }
+
+    public static Path sidecarFor(Path baseline) {
+        String name = baseline.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return baseline.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + SUFFIX);
+    }
+
+    /**
+     * Indexes of the tiles whose hash in the actual image differs from the baseline
+     */
+    public int[] changedTiles(BufferedImage actual) {
+        return summary().changedTiles(summarize(actual));
+    }
+
+    /**
+     * Tile hashes and block means of an image on this index's grid, for comparing with summary()
+     */
+    public ImageComparator.Summary summarize(BufferedImage image) {
+        return ImageComparator.summarize(image, tileSize, blockSize);
+    }
+
+    /**
+     * The baseline's tile hashes and block means, as stored
+     */
+    public ImageComparator.Summary summary() {
+        return new ImageComparator.Summary(width, height, tileSize, toLongs(hashes), blockSize, inflate(blocks));
+    }
+
+    public boolean matchesSize(BufferedImage image) {
+        return image.getWidth() == width && image.getHeight() == height;
+    }
+
+    public int tileCount() {
+        return hashes.length / Long.BYTES;
+    }
+
+    private static byte[] toBytes(long[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        buffer.asLongBuffer().put(values);
+        return buffer.array();
+    }
+
+    private static long[] toLongs(byte[] bytes) {
+        long[] values = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(values);
+        return values;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private byte[] inflate(byte[] data) {
+        int blockColumns = (width + blockSize - 1) / blockSize;
+        int blockRows = (height + blockSize - 1) / blockSize;
+        byte[] means = new byte[blockColumns * blockRows * 3];
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        try {
+            int read = 0;
+            while (read < means.length && !inflater.finished()) {
+                int n = inflater.inflate(means, read, means.length - read);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("truncated");
+                }
+                read += n;
+            }
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Corrupt block means in tile index", e);
+        } finally {
+            inflater.end();
+        }
+        return means;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BaselineTileIndex{" + width + "x" + height + ", tileSize=" + tileSize + ", blockSize=" + blockSize + ", tiles=" + tileCount() + "}";
+    }
+}
@@ -0,0 +1,271 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Wait engine that sends the condition to the browser once (executeAsyncScript) and lets the page
+ * re-check it on DOM mutations and animation frames, instead of a WebDriver round trip every 500ms.
+ * Used by WaitUtil when wait.engine=browser. Falls back to WebDriverWait for drivers or contexts
+ * that cannot run async scripts (e.g. native mobile).
+ */
+public class BrowserWait {
+    private static final String SCRIPT = loadScript();
+    // Margin so the in-page timer always fires before the driver's script timeout
+    private static final long SCRIPT_TIMEOUT_MARGIN_MS = 1000;
+
+    public static boolean isEnabled() {
+        return "browser".equalsIgnoreCase(ConfigReader.get("wait.engine", "polling"));
+    }
+
+    public static Condition presenceOf(By locator) {
+        return locatorCondition("present", locator, ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    public static Condition visibilityOf(By locator) {
+        return locatorCondition("visible", locator, ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    public static Condition clickabilityOf(By locator) {
+        return locatorCondition("clickable", locator, ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    public static Condition invisibilityOf(By locator) {
+        return locatorCondition("invisible", locator, ExpectedConditions.invisibilityOfElementLocated(locator));
+    }
+
+    public static Condition textIn(By locator, String text) {
+        return locatorCondition("text", locator, ExpectedConditions.textToBePresentInElementLocated(locator, text))
+                .with("expected", text);
+    }
+
+    public static Condition attributeOf(By locator, String attribute, String value) {
+        return locatorCondition("attribute", locator, ExpectedConditions.attributeToBe(locator, attribute, value))
+                .with("name", attribute)
+                .with("expected", value);
+    }
+
+    public static Condition countOf(By locator, int expectedCount) {
+        return locatorCondition("count", locator, ExpectedConditions.numberOfElementsToBe(locator, expectedCount))
+                .with("expected", expectedCount);
+    }
+
+    public static Condition selectionOf(By locator) {
+        return locatorCondition("selected", locator, ExpectedConditions.elementToBeSelected(locator));
+    }
+
+    public static Condition urlContains(String fraction) {
+        return new Condition("url", "URL to contain '" + fraction + "'", ExpectedConditions.urlContains(fraction))
+                .with("expected", fraction);
+    }
+
+    public static Condition titleContains(String fraction) {
+        return new Condition("title", "title to contain '" + fraction + "'", ExpectedConditions.titleContains(fraction))
+                .with("expected", fraction);
+    }
+
+    public static Condition documentReady() {
+        return new Condition("ready", "document to be ready",
+                driver -> "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState")));
+    }
+
+    /**
+     * All conditions at once, checked together in one script evaluation per re-check
+     */
+    public static Condition allOf(Condition... conditions) {
+        return composite(true, conditions);
+    }
+
+    /**
+     * At least one of the conditions, checked together in one script evaluation per re-check
+     */
+    public static Condition anyOf(Condition... conditions) {
+        return composite(false, conditions);
+    }
+
+    /**
+     * Block until the condition holds in the browser; throws TimeoutException like WebDriverWait
+     */
+    public static void until(WebDriver driver, Condition condition, Duration timeout) {
+        if (!(driver instanceof JavascriptExecutor) || condition.locatorUnsupported) {
+            poll(driver, condition, timeout);
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        long chunkMs = Math.max(1000, ConfigReader.getInt("script.timeout", 30) * 1000L - SCRIPT_TIMEOUT_MARGIN_MS);
+        Object pending = null;
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException("Expected condition failed: waiting for " + condition.description
+                        + (pending instanceof List && !((List<?>) pending).isEmpty() ? " (still pending: " + pending + ")" : "")
+                        + " (browser-side wait, " + timeout.toMillis() + "ms)");
+            }
+            Object result;
+            try {
+                result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, condition.spec, Math.min(remaining, chunkMs));
+            } catch (ScriptTimeoutException e) {
+                continue;
+            } catch (WebDriverException e) {
+                if (isNavigation(e)) {
+                    // The page was replaced while waiting; start over on the new document
+                    continue;
+                }
+                LogUtil.debug("Browser-side wait unavailable (" + e.getClass().getSimpleName() + "), polling instead");
+                poll(driver, condition, Duration.ofMillis(Math.max(0, deadline - System.currentTimeMillis())));
+                return;
+            }
+
+            if (result instanceof Map) {
+                Map<?, ?> outcome = (Map<?, ?>) result;
+                if (Boolean.TRUE.equals(outcome.get("met"))) {
+                    return;
+                }
+                if (outcome.get("error") != null) {
+                    LogUtil.debug("Browser-side wait failed: " + outcome.get("error") + ", polling instead");
+                    poll(driver, condition, Duration.ofMillis(Math.max(0, deadline - System.currentTimeMillis())));
+                    return;
+                }
+                pending = outcome.get("pending");
+            }
+        }
+    }
+
+    private static void poll(WebDriver driver, Condition condition, Duration timeout) {
+        poll(driver, condition, timeout, Duration.ofMillis(500));
+    }
+
+    /**
+     * Wait for the condition with client-side WebDriverWait polling
+     */
+    public static void poll(WebDriver driver, Condition condition, Duration timeout, Duration polling) {
+        new WebDriverWait(driver, timeout, polling).until(condition.fallback);
+    }
+
+    private static boolean isNavigation(WebDriverException e) {
+        String message = String.valueOf(e.getMessage()).toLowerCase();
+        return message.contains("unload") || message.contains("navigat") || message.contains("execution context was destroyed");
+    }
+
+    private static Condition locatorCondition(String type, By locator, ExpectedCondition<?> fallback) {
+        Condition condition = new Condition(type, type + " of " + locator, fallback);
+        if (locator instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            condition.with("using", parameters.using()).with("value", parameters.value());
+        } else {
+            // Custom By implementations (e.g. ByChained) can only be evaluated by the driver
+            condition.locatorUnsupported = true;
+        }
+        return condition;
+    }
+
+    private static Condition composite(boolean all, Condition... conditions) {
+        List<Condition> parts = List.of(conditions);
+        Condition condition = new Condition(all ? "all" : "any", (all ? "all of " : "any of ") + parts,
+                new CompositeExpectation(all, parts))
+                .with("conditions", parts.stream().map(part -> part.spec).collect(Collectors.toList()));
+        condition.locatorUnsupported = parts.stream().anyMatch(part -> part.locatorUnsupported);
+        return condition;
+    }
+
+    private static String loadScript() {
+        try (InputStream in = BrowserWait.class.getClassLoader().getResourceAsStream("js/browser-wait.js")) {
+            if (in == null) {
+                throw new IllegalStateException("js/browser-wait.js not found on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load browser wait script", e);
+        }
+    }
+
+    /**
+     * A condition the browser can evaluate, plus the equivalent ExpectedCondition for fallback polling
+     */
+    public static class Condition {
+        private final Map<String, Object> spec = new HashMap<>();
+        private final String description;
+        private final ExpectedCondition<?> fallback;
+        private boolean locatorUnsupported;
+
+        private Condition(String type, String description, ExpectedCondition<?> fallback) {
+            this.description = description;
+            this.fallback = fallback;
+            spec.put("type", type);
+            spec.put("description", description);
+            spec.put("pollMs", ConfigReader.getInt("wait.browser.poll.ms", 100));
+        }
+
+        private Condition with(String key, Object value) {
+            spec.put(key, value);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    /**
+     * Fallback for allOf/anyOf: every condition evaluated in one polling loop; toString names the
+     * ones still pending so WebDriverWait's timeout message shows them
+     */
+    private static class CompositeExpectation implements ExpectedCondition<Boolean> {
+        private final boolean all;
+        private final List<Condition> conditions;
+        private volatile List<Condition> pending;
+
+        private CompositeExpectation(boolean all, List<Condition> conditions) {
+            this.all = all;
+            this.conditions = conditions;
+        }
+
+        @Override
+        public Boolean apply(WebDriver driver) {
+            List<Condition> unmet = new ArrayList<>();
+            for (Condition condition : conditions) {
+                if (!holds(condition, driver)) {
+                    unmet.add(condition);
+                }
+            }
+            pending = unmet;
+            return all ? unmet.isEmpty() : unmet.size() < conditions.size();
+        }
+
+        private static boolean holds(Condition condition, WebDriver driver) {
+            try {
+                Object value = condition.fallback.apply(driver);
+                return value != null && !Boolean.FALSE.equals(value);
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return (all ? "all of " : "any of ") + conditions
+                    + (pending == null || pending.isEmpty() ? "" : " (still pending: " + pending + ")");
+        }
+    }
+}
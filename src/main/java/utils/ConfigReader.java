@@ -75,6 +75,16 @@ public class ConfigReader {
         }
     }
 
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            LogUtil.warn("Invalid number value for key: " + key + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     public static boolean getBoolean(String key) {
         return getBoolean(key, false);
     }
@@ -108,6 +118,17 @@ public class ConfigReader {
         return getInt("thread.count", 4);
     }
 
+    public static boolean isSmartLocatorEnabled() {
+        return getBoolean("smart.locator.enabled", false);
+    }
+
+    /**
+     * Driver-level implicit wait; zero when page objects wait explicitly through smart locators
+     */
+    public static int getImplicitWait() {
+        return isSmartLocatorEnabled() ? 0 : getInt("implicit.wait", 10);
+    }
+
     public static boolean isGridEnabled() {
         return getBoolean("grid.enabled", false);
     }
@@ -0,0 +1,183 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State of a single test invocation: its WebDriver, report node and metrics. The context is
+ * attached to the invocation's ITestResult rather than to a thread, so work for the test can
+ * run on any thread (pool, async or virtual) as long as it is wrapped with {@link #wrap(Runnable)}.
+ *
+ * The only thread binding is the one made by {@link #runWith}/{@link #callWith}, which is
+ * restored in a finally block when the call returns, so nothing outlives the invocation.
+ * Outside such a call (e.g. listener callbacks), {@link #current()} falls back to the context of
+ * TestNG's current test result.
+ */
+public class ExecutionContext implements AutoCloseable {
+    private static final String RESULT_ATTRIBUTE = ExecutionContext.class.getName();
+    private static final ThreadLocal<ExecutionContext> bound = new ThreadLocal<>();
+    private static final Set<ExecutionContext> openContexts = ConcurrentHashMap.newKeySet();
+
+    private final String name;
+    private final Map<String, Long> metrics = new ConcurrentHashMap<>();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private volatile WebDriver driver;
+    private volatile ExtentTest reportNode;
+    private volatile boolean closed;
+
+    private ExecutionContext(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the context for a test invocation, creating it on first use
+     */
+    public static ExecutionContext forResult(ITestResult result) {
+        synchronized (result) {
+            Object existing = result.getAttribute(RESULT_ATTRIBUTE);
+            if (existing instanceof ExecutionContext && !((ExecutionContext) existing).closed) {
+                return (ExecutionContext) existing;
+            }
+            ExecutionContext context = new ExecutionContext(
+                    result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName());
+            result.setAttribute(RESULT_ATTRIBUTE, context);
+            openContexts.add(context);
+            return context;
+        }
+    }
+
+    /**
+     * Context bound to the currently executing call, else the one attached to TestNG's current test
+     * result; null outside of a test invocation
+     */
+    public static ExecutionContext current() {
+        ExecutionContext context = bound.get();
+        if (context != null) {
+            return context;
+        }
+        ITestResult result = Reporter.getCurrentTestResult();
+        Object attached = result != null ? result.getAttribute(RESULT_ATTRIBUTE) : null;
+        if (attached instanceof ExecutionContext && !((ExecutionContext) attached).closed) {
+            return (ExecutionContext) attached;
+        }
+        return null;
+    }
+
+    public static void runWith(ExecutionContext context, Runnable task) {
+        callWith(context, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callWith(ExecutionContext context, Callable<T> task) {
+        ExecutionContext previous = bound.get();
+        bound.set(context);
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (previous != null) {
+                bound.set(previous);
+            } else {
+                bound.remove();
+            }
+        }
+    }
+
+    /**
+     * Wrap a task so it runs with this context bound, on whatever thread executes it
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> runWith(this, task);
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> callWith(this, task);
+    }
+
+    /**
+     * Number of invocations whose context has not been closed; non-zero after a suite indicates a leak
+     */
+    public static int getOpenCount() {
+        return openContexts.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public void setDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public ExtentTest getReportNode() {
+        return reportNode;
+    }
+
+    public void setReportNode(ExtentTest reportNode) {
+        this.reportNode = reportNode;
+    }
+
+    public void recordMetric(String metric, long value) {
+        metrics.merge(metric, value, Long::sum);
+    }
+
+    public Map<String, Long> getMetrics() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(metrics));
+    }
+
+    public void setAttribute(String key, Object value) {
+        attributes.put(key, value);
+    }
+
+    public Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Release everything held by the invocation. The driver must already have been handed back.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (driver != null) {
+            LogUtil.warn("Execution context " + name + " closed while still holding a WebDriver");
+        }
+        if (!metrics.isEmpty()) {
+            LogUtil.debug("Metrics for " + name + ": " + metrics);
+        }
+        driver = null;
+        reportNode = null;
+        attributes.clear();
+        openContexts.remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionContext(" + name + ")";
+    }
+}
@@ -0,0 +1,571 @@
+package utils;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Pixel comparison for visual tests that reads the images' int[] / byte[] rasters directly instead
+ * of BufferedImage.getRGB per pixel. Row stripes are compared on the common fork-join pool and the
+ * comparison stops as soon as more pixels differ than the similarity threshold allows.
+ * A pixel differs when its ARGB value differs, the same rule as getRGB(x, y) != getRGB(x, y).
+ */
+public class ImageComparator {
+    private static final int MIN_STRIPE_ROWS = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Compare two images of the same size; stops early once similarity must be below threshold
+     */
+    public static Result compare(BufferedImage baseline, BufferedImage actual, double threshold) {
+        return compare(baseline, actual, threshold, true);
+    }
+
+    /**
+     * Compare two images of the same size; with earlyExit false every pixel is counted
+     */
+    public static Result compare(BufferedImage baseline, BufferedImage actual, double threshold, boolean earlyExit) {
+        if (baseline.getWidth() != actual.getWidth() || baseline.getHeight() != actual.getHeight()) {
+            throw new IllegalArgumentException("Image dimensions differ: " + baseline.getWidth() + "x" + baseline.getHeight()
+                    + " vs " + actual.getWidth() + "x" + actual.getHeight());
+        }
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        long totalPixels = (long) width * height;
+        long maxDifferent = earlyExit ? (long) Math.floor((1.0 - threshold) * totalPixels) : Long.MAX_VALUE;
+
+        Pixels baselinePixels = Pixels.of(baseline, actual.getType());
+        Pixels actualPixels = Pixels.of(actual, baselinePixels.type);
+
+        AtomicLong different = new AtomicLong();
+        AtomicBoolean exceeded = new AtomicBoolean();
+        forEachStripe(height, (fromRow, toRow) -> {
+            for (int y = fromRow; y < toRow && !exceeded.get(); y++) {
+                int rowDifferent = baselinePixels.countDifferent(actualPixels, y * width, (y + 1) * width);
+                if (rowDifferent > 0 && different.addAndGet(rowDifferent) > maxDifferent) {
+                    exceeded.set(true);
+                }
+            }
+        });
+        return new Result(different.get(), totalPixels, exceeded.get());
+    }
+
+    /**
+     * Copy of the baseline with every differing pixel painted red
+     */
+    public static BufferedImage diffImage(BufferedImage baseline, BufferedImage actual) {
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        int[] expected = toIntArgb(baseline);
+        int[] found = toIntArgb(actual);
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) diff.getRaster().getDataBuffer()).getData();
+        int red = Color.RED.getRGB();
+        forEachStripe(height, (fromRow, toRow) -> {
+            for (int i = fromRow * width, end = toRow * width; i < end; i++) {
+                out[i] = expected[i] != found[i] ? red : expected[i];
+            }
+        });
+        return diff;
+    }
+
+    /**
+     * A 64-bit hash of the ARGB pixels of each tileSize x tileSize tile, tile rows first; the hash
+     * depends only on pixel values, not on the image's raster layout
+     */
+    public static long[] tileHashes(BufferedImage image, int tileSize) {
+        return summarize(image, tileSize, 0).getTileHashes();
+    }
+
+    /**
+     * Tile hashes plus a downscaled copy (mean RGB of each blockSize x blockSize block), both from a
+     * single pass over the image. blockSize must divide tileSize; 0 skips the downscaled copy.
+     */
+    public static Summary summarize(BufferedImage image, int tileSize, int blockSize) {
+        if (blockSize > 0 && tileSize % blockSize != 0) {
+            throw new IllegalArgumentException("Block size " + blockSize + " does not divide tile size " + tileSize);
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int columns = (width + tileSize - 1) / tileSize;
+        int rows = (height + tileSize - 1) / tileSize;
+        int blockColumns = blockSize > 0 ? (width + blockSize - 1) / blockSize : 0;
+        int blockRows = blockSize > 0 ? (height + blockSize - 1) / blockSize : 0;
+        Pixels pixels = Pixels.of(image, image.getType());
+        long[] hashes = new long[columns * rows];
+        // Tile rows start on block rows, so each stripe writes its own blocks
+        long[] sums = new long[blockColumns * blockRows * 3];
+        forEachStripe(rows, (fromTileRow, toTileRow) -> {
+            for (int tileRow = fromTileRow; tileRow < toTileRow; tileRow++) {
+                int base = tileRow * columns;
+                for (int tile = 0; tile < columns; tile++) {
+                    hashes[base + tile] = FNV_OFFSET;
+                }
+                for (int y = tileRow * tileSize, yEnd = Math.min(height, y + tileSize); y < yEnd; y++) {
+                    int blockBase = blockSize > 0 ? (y / blockSize) * blockColumns : 0;
+                    for (int x = 0; x < width; x++) {
+                        int argb = pixels.argb(y * width + x);
+                        int tile = base + x / tileSize;
+                        hashes[tile] = (hashes[tile] ^ argb) * FNV_PRIME;
+                        if (blockSize > 0) {
+                            int block = (blockBase + x / blockSize) * 3;
+                            sums[block] += (argb >> 16) & 0xFF;
+                            sums[block + 1] += (argb >> 8) & 0xFF;
+                            sums[block + 2] += argb & 0xFF;
+                        }
+                    }
+                }
+            }
+        }, 1);
+
+        byte[] means = new byte[sums.length];
+        for (int block = 0; block < blockColumns * blockRows; block++) {
+            int x = (block % blockColumns) * blockSize;
+            int y = (block / blockColumns) * blockSize;
+            long count = (long) (Math.min(width, x + blockSize) - x) * (Math.min(height, y + blockSize) - y);
+            for (int c = 0; c < 3; c++) {
+                means[block * 3 + c] = (byte) Math.round((double) sums[block * 3 + c] / count);
+            }
+        }
+        return new Summary(width, height, tileSize, hashes, blockSize, means);
+    }
+
+    /**
+     * Like compare, but only the listed tiles (indexes into the tileHashes grid) are compared; the
+     * rest are known to be identical
+     */
+    public static Result compareTiles(BufferedImage baseline, BufferedImage actual, int tileSize, int[] tiles, double threshold) {
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        int columns = (width + tileSize - 1) / tileSize;
+        long totalPixels = (long) width * height;
+        long maxDifferent = (long) Math.floor((1.0 - threshold) * totalPixels);
+
+        Pixels baselinePixels = Pixels.of(baseline, actual.getType());
+        Pixels actualPixels = Pixels.of(actual, baselinePixels.type);
+
+        AtomicLong different = new AtomicLong();
+        AtomicBoolean exceeded = new AtomicBoolean();
+        forEachStripe(tiles.length, (from, to) -> {
+            for (int t = from; t < to && !exceeded.get(); t++) {
+                int x0 = (tiles[t] % columns) * tileSize;
+                int x1 = Math.min(width, x0 + tileSize);
+                int y0 = (tiles[t] / columns) * tileSize;
+                int tileDifferent = 0;
+                for (int y = y0, yEnd = Math.min(height, y0 + tileSize); y < yEnd; y++) {
+                    tileDifferent += baselinePixels.countDifferent(actualPixels, y * width + x0, y * width + x1);
+                }
+                if (tileDifferent > 0 && different.addAndGet(tileDifferent) > maxDifferent) {
+                    exceeded.set(true);
+                }
+            }
+        }, 1);
+        return new Result(different.get(), totalPixels, exceeded.get());
+    }
+
+    /**
+     * Groups the differing pixels into regions, largest first. The image is cut into cellSize x
+     * cellSize cells and cells holding a differing pixel join their 8 neighbours, so differences less
+     * than a cell apart form one region; each region's bounds are tight around its pixels.
+     */
+    public static List<Region> diffRegions(BufferedImage baseline, BufferedImage actual, int cellSize) {
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        int columns = (width + cellSize - 1) / cellSize;
+        int rows = (height + cellSize - 1) / cellSize;
+        Pixels baselinePixels = Pixels.of(baseline, actual.getType());
+        Pixels actualPixels = Pixels.of(actual, baselinePixels.type);
+
+        // Per cell: differing pixels and their bounds (minX, minY, maxX, maxY)
+        int cells = columns * rows;
+        int[] counts = new int[cells];
+        int[] bounds = new int[cells * 4];
+        forEachStripe(rows, (fromCellRow, toCellRow) -> {
+            for (int y = fromCellRow * cellSize, yEnd = Math.min(height, toCellRow * cellSize); y < yEnd; y++) {
+                int base = (y / cellSize) * columns;
+                for (int x = 0; x < width; x++) {
+                    if (baselinePixels.differs(actualPixels, y * width + x)) {
+                        int cell = base + x / cellSize;
+                        int b = cell * 4;
+                        if (counts[cell]++ == 0) {
+                            bounds[b] = x;
+                            bounds[b + 1] = y;
+                            bounds[b + 2] = x;
+                        } else {
+                            bounds[b] = Math.min(bounds[b], x);
+                            bounds[b + 2] = Math.max(bounds[b + 2], x);
+                        }
+                        bounds[b + 3] = y;
+                    }
+                }
+            }
+        }, 1);
+
+        List<Region> regions = new ArrayList<>();
+        boolean[] visited = new boolean[cells];
+        int[] stack = new int[cells];
+        for (int start = 0; start < cells; start++) {
+            if (counts[start] == 0 || visited[start]) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = start;
+            visited[start] = true;
+            long pixels = 0;
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+            while (top > 0) {
+                int cell = stack[--top];
+                int b = cell * 4;
+                pixels += counts[cell];
+                minX = Math.min(minX, bounds[b]);
+                minY = Math.min(minY, bounds[b + 1]);
+                maxX = Math.max(maxX, bounds[b + 2]);
+                maxY = Math.max(maxY, bounds[b + 3]);
+                int cellX = cell % columns;
+                int cellY = cell / columns;
+                for (int ny = Math.max(0, cellY - 1); ny <= Math.min(rows - 1, cellY + 1); ny++) {
+                    for (int nx = Math.max(0, cellX - 1); nx <= Math.min(columns - 1, cellX + 1); nx++) {
+                        int neighbour = ny * columns + nx;
+                        if (counts[neighbour] > 0 && !visited[neighbour]) {
+                            visited[neighbour] = true;
+                            stack[top++] = neighbour;
+                        }
+                    }
+                }
+            }
+            regions.add(new Region(minX, minY, maxX - minX + 1, maxY - minY + 1, pixels));
+        }
+        regions.sort(Comparator.comparingLong(Region::getDifferentPixels).reversed());
+        return regions;
+    }
+
+    private static void forEachStripe(int height, StripeTask task) {
+        forEachStripe(height, task, MIN_STRIPE_ROWS);
+    }
+
+    // Splits [0, rows) into stripes run on the common pool; rows are image rows, tile rows or tiles
+    private static void forEachStripe(int rows, StripeTask task, int minStripeRows) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        // A few stripes per worker so an uneven stripe does not leave the others idle
+        int stripeRows = Math.max(minStripeRows, (rows + parallelism * 4 - 1) / (parallelism * 4));
+        List<ForkJoinTask<?>> stripes = new ArrayList<>();
+        for (int fromRow = 0; fromRow < rows; fromRow += stripeRows) {
+            int from = fromRow;
+            int to = Math.min(rows, fromRow + stripeRows);
+            stripes.add(ForkJoinTask.adapt(() -> task.run(from, to)));
+        }
+        ForkJoinTask.invokeAll(stripes);
+    }
+
+    // ARGB pixels in a single int[], converting only images that are not TYPE_INT_ARGB already
+    private static int[] toIntArgb(BufferedImage image) {
+        return Pixels.of(image, BufferedImage.TYPE_INT_ARGB).ints;
+    }
+
+    private interface StripeTask {
+        void run(int fromRow, int toRow);
+    }
+
+    /**
+     * The raster of an image as a flat array, in a layout both images of a comparison share
+     */
+    private static class Pixels {
+        private final int type;
+        private final int[] ints;
+        private final byte[] bytes;
+        private final int bytesPerPixel;
+        private final int mask;
+
+        private Pixels(int type, int[] ints, byte[] bytes, int bytesPerPixel, int mask) {
+            this.type = type;
+            this.ints = ints;
+            this.bytes = bytes;
+            this.bytesPerPixel = bytesPerPixel;
+            this.mask = mask;
+        }
+
+        /**
+         * Raw raster when the image has a directly comparable layout matching the preferred type,
+         * otherwise a TYPE_INT_ARGB copy
+         */
+        static Pixels of(BufferedImage image, int preferredType) {
+            int type = image.getType();
+            if (type == preferredType && isPlainRaster(image)) {
+                switch (type) {
+                    case BufferedImage.TYPE_INT_ARGB:
+                        return new Pixels(type, ints(image), null, 1, 0xFFFFFFFF);
+                    case BufferedImage.TYPE_INT_RGB:
+                        // getRGB reports these as opaque, so the unused top byte is ignored
+                        return new Pixels(type, ints(image), null, 1, 0x00FFFFFF);
+                    case BufferedImage.TYPE_3BYTE_BGR:
+                        return new Pixels(type, null, bytes(image), 3, 0);
+                    case BufferedImage.TYPE_4BYTE_ABGR:
+                        return new Pixels(type, null, bytes(image), 4, 0);
+                    default:
+                        break;
+                }
+            }
+            if (type == BufferedImage.TYPE_INT_ARGB && isPlainRaster(image)) {
+                return new Pixels(type, ints(image), null, 1, 0xFFFFFFFF);
+            }
+            BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = converted.createGraphics();
+            try {
+                // Src keeps translucent pixels exactly as getRGB reports them
+                graphics.setComposite(AlphaComposite.Src);
+                graphics.drawImage(image, 0, 0, null);
+            } finally {
+                graphics.dispose();
+            }
+            return new Pixels(BufferedImage.TYPE_INT_ARGB, ints(converted), null, 1, 0xFFFFFFFF);
+        }
+
+        // Different pixels among pixel indexes [from, to)
+        int countDifferent(Pixels other, int from, int to) {
+            int different = 0;
+            if (ints != null) {
+                for (int i = from; i < to; i++) {
+                    if (((ints[i] ^ other.ints[i]) & mask) != 0) {
+                        different++;
+                    }
+                }
+            } else {
+                for (int i = from * bytesPerPixel, end = to * bytesPerPixel; i < end; i += bytesPerPixel) {
+                    for (int b = 0; b < bytesPerPixel; b++) {
+                        if (bytes[i + b] != other.bytes[i + b]) {
+                            different++;
+                            break;
+                        }
+                    }
+                }
+            }
+            return different;
+        }
+
+        // Whether a single pixel differs
+        boolean differs(Pixels other, int index) {
+            if (ints != null) {
+                return ((ints[index] ^ other.ints[index]) & mask) != 0;
+            }
+            for (int i = index * bytesPerPixel, end = i + bytesPerPixel; i < end; i++) {
+                if (bytes[i] != other.bytes[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // ARGB value of a pixel, as getRGB reports it
+        int argb(int index) {
+            if (ints != null) {
+                return mask == 0xFFFFFFFF ? ints[index] : 0xFF000000 | (ints[index] & mask);
+            }
+            int i = index * bytesPerPixel;
+            if (bytesPerPixel == 3) {
+                return 0xFF000000 | (bytes[i + 2] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i] & 0xFF);
+            }
+            return (bytes[i] & 0xFF) << 24 | (bytes[i + 3] & 0xFF) << 16 | (bytes[i + 2] & 0xFF) << 8 | (bytes[i + 1] & 0xFF);
+        }
+
+        // Whole image in one bank, not a sub-image view, so pixel (x, y) is at y * width + x
+        private static boolean isPlainRaster(BufferedImage image) {
+            return image.getRaster().getParent() == null
+                    && image.getRaster().getSampleModelTranslateX() == 0
+                    && image.getRaster().getSampleModelTranslateY() == 0
+                    && image.getRaster().getDataBuffer().getNumBanks() == 1
+                    && image.getRaster().getDataBuffer().getOffset() == 0;
+        }
+
+        private static int[] ints(BufferedImage image) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+
+        private static byte[] bytes(BufferedImage image) {
+            return ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        }
+    }
+
+    /**
+     * Outcome of a comparison. When stopped early the count covers only the rows compared so far.
+     */
+    public static class Result {
+        private final long differentPixels;
+        private final long totalPixels;
+        private final boolean stoppedEarly;
+
+        private Result(long differentPixels, long totalPixels, boolean stoppedEarly) {
+            this.differentPixels = differentPixels;
+            this.totalPixels = totalPixels;
+            this.stoppedEarly = stoppedEarly;
+        }
+
+        public long getDifferentPixels() {
+            return differentPixels;
+        }
+
+        public long getTotalPixels() {
+            return totalPixels;
+        }
+
+        public boolean isStoppedEarly() {
+            return stoppedEarly;
+        }
+
+        /**
+         * Share of equal pixels; an upper bound when the comparison stopped early
+         */
+        public double getSimilarity() {
+            return totalPixels == 0 ? 1.0 : 1.0 - ((double) differentPixels / totalPixels);
+        }
+
+        public boolean isSimilar(double threshold) {
+            return !stoppedEarly && getSimilarity() >= threshold;
+        }
+    }
+
+    /**
+     * Tile hashes and downscaled block means of one image (see summarize)
+     */
+    public static class Summary {
+        private final int width;
+        private final int height;
+        private final int tileSize;
+        private final long[] tileHashes;
+        private final int blockSize;
+        private final byte[] blockMeans;
+
+        public Summary(int width, int height, int tileSize, long[] tileHashes, int blockSize, byte[] blockMeans) {
+            this.width = width;
+            this.height = height;
+            this.tileSize = tileSize;
+            this.tileHashes = tileHashes;
+            this.blockSize = blockSize;
+            this.blockMeans = blockMeans;
+        }
+
+        public long[] getTileHashes() {
+            return tileHashes;
+        }
+
+        public byte[] getBlockMeans() {
+            return blockMeans;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        /**
+         * Tiles whose hash differs from the other summary's (same size and tile size)
+         */
+        public int[] changedTiles(Summary other) {
+            return IntStream.range(0, tileHashes.length)
+                    .filter(tile -> tileHashes[tile] != other.tileHashes[tile])
+                    .toArray();
+        }
+
+        /**
+         * Upper bound on different pixels: every pixel of the changed tiles
+         */
+        public long maxDifferentPixels(int[] changedTiles) {
+            int columns = (width + tileSize - 1) / tileSize;
+            long pixels = 0;
+            for (int tile : changedTiles) {
+                int x = (tile % columns) * tileSize;
+                int y = (tile / columns) * tileSize;
+                pixels += (long) (Math.min(width, x + tileSize) - x) * (Math.min(height, y + tileSize) - y);
+            }
+            return pixels;
+        }
+
+        /**
+         * Lower bound on different pixels from the block means of the changed tiles. A pixel moves a
+         * channel's sum by at most 255, so a block whose mean differs by d (less 1 for rounding)
+         * holds at least ceil(n * d / 255) different pixels.
+         */
+        public long minDifferentPixels(Summary other, int[] changedTiles) {
+            if (blockSize == 0 || other.blockSize != blockSize) {
+                return 0;
+            }
+            int columns = (width + tileSize - 1) / tileSize;
+            int blockColumns = (width + blockSize - 1) / blockSize;
+            int blocksPerTile = tileSize / blockSize;
+            long bound = 0;
+            for (int tile : changedTiles) {
+                int firstBlockX = (tile % columns) * blocksPerTile;
+                int firstBlockY = (tile / columns) * blocksPerTile;
+                for (int by = firstBlockY; by < firstBlockY + blocksPerTile && by * blockSize < height; by++) {
+                    for (int bx = firstBlockX; bx < firstBlockX + blocksPerTile && bx * blockSize < width; bx++) {
+                        int block = (by * blockColumns + bx) * 3;
+                        int delta = 0;
+                        for (int c = 0; c < 3; c++) {
+                            delta = Math.max(delta, Math.abs((blockMeans[block + c] & 0xFF) - (other.blockMeans[block + c] & 0xFF)) - 1);
+                        }
+                        if (delta > 0) {
+                            long count = (long) (Math.min(width, (bx + 1) * blockSize) - bx * blockSize)
+                                    * (Math.min(height, (by + 1) * blockSize) - by * blockSize);
+                            bound += (count * delta + 254) / 255;
+                        }
+                    }
+                }
+            }
+            return bound;
+        }
+    }
+
+    /**
+     * Bounding box of a group of differing pixels (see diffRegions)
+     */
+    public static class Region {
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        private final long differentPixels;
+
+        private Region(int x, int y, int width, int height, long differentPixels) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.differentPixels = differentPixels;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public long getDifferentPixels() {
+            return differentPixels;
+        }
+
+        @Override
+        public String toString() {
+            return width + "x" + height + " at (" + x + ", " + y + "), " + differentPixels + " pixels";
+        }
+    }
+}
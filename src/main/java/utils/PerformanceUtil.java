@@ -37,6 +37,13 @@ public class PerformanceUtil {
         }
     }
 
+    /**
+     * Directory where performance results are written
+     */
+    public static Path getResultsDirectory() {
+        return Paths.get(PERFORMANCE_LOG_PATH);
+    }
+
     /**
      * Start performance measurement
      */
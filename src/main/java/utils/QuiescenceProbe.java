@@ -0,0 +1,144 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * One probe for "is the application idle": document readiness, in-flight XHR and fetch calls,
+ * jQuery and Angular (AngularJS and Angular testabilities) and running animations, in a single
+ * script call. On Chromium drivers the request tracking is injected before page scripts run;
+ * elsewhere it is installed on the first probe, so requests already in flight then are not seen.
+ */
+public class QuiescenceProbe {
+    private static final String INSTALL_SCRIPT = loadScript();
+    private static final String STATUS_SCRIPT = INSTALL_SCRIPT + "\nreturn window.__seleniumQuiescence.status(arguments[0]);";
+
+    private static final Set<WebDriver> preinstalled = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * Current state of the page; quiet when nothing is busy
+     */
+    public static Status probe(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return Status.QUIET;
+        }
+        installOnNewDocument(driver);
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(STATUS_SCRIPT, getOptions());
+            if (result instanceof Map) {
+                Map<?, ?> status = (Map<?, ?>) result;
+                List<String> busy = new ArrayList<>();
+                if (status.get("busy") instanceof List) {
+                    ((List<?>) status.get("busy")).forEach(item -> busy.add(String.valueOf(item)));
+                }
+                return new Status(Boolean.TRUE.equals(status.get("quiet")), busy);
+            }
+            return new Status(false, List.of("no probe result"));
+        } catch (WebDriverException e) {
+            // Typically a navigation in progress; report busy and let the caller probe again
+            return new Status(false, List.of("probe failed: " + e.getClass().getSimpleName()));
+        }
+    }
+
+    /**
+     * Wait until the page is quiet; the TimeoutException names what was still busy
+     */
+    public static void waitUntilQuiet(WebDriver driver, Duration timeout) {
+        Status first = probe(driver);
+        if (first.isQuiet()) {
+            return;
+        }
+        Status[] last = {first};
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(Duration.ofMillis(ConfigReader.getInt("quiescence.poll.ms", 100)))
+                    .until(d -> (last[0] = probe(d)).isQuiet());
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Application not quiet after " + timeout.toMillis() + "ms, still busy: " + last[0], e);
+        }
+    }
+
+    /**
+     * Register the tracking script to run before page scripts on every new document (Chromium only)
+     */
+    private static void installOnNewDocument(WebDriver driver) {
+        // LazyDriver exposes only the core interfaces; CDP is on the session behind it
+        if (driver instanceof WrapsDriver && !(driver instanceof HasCdp)) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        if (!(driver instanceof HasCdp) || !preinstalled.add(driver)) {
+            return;
+        }
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("source", INSTALL_SCRIPT);
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+        } catch (WebDriverException e) {
+            LogUtil.debug("Quiescence probe not injected on new documents: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> getOptions() {
+        Map<String, Object> options = new HashMap<>();
+        options.put("networkIdleMs", ConfigReader.getInt("quiescence.network.idle.ms", 100));
+        options.put("animations", ConfigReader.getBoolean("quiescence.animations", true));
+        return options;
+    }
+
+    private static String loadScript() {
+        try (InputStream in = QuiescenceProbe.class.getClassLoader().getResourceAsStream("js/quiescence-probe.js")) {
+            if (in == null) {
+                throw new IllegalStateException("js/quiescence-probe.js not found on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load quiescence probe script", e);
+        }
+    }
+
+    /**
+     * Result of one probe: quiet, or the list of what is still busy
+     */
+    public static class Status {
+        static final Status QUIET = new Status(true, List.of());
+
+        private final boolean quiet;
+        private final List<String> busy;
+
+        private Status(boolean quiet, List<String> busy) {
+            this.quiet = quiet;
+            this.busy = busy;
+        }
+
+        public boolean isQuiet() {
+            return quiet;
+        }
+
+        public List<String> getBusy() {
+            return busy;
+        }
+
+        @Override
+        public String toString() {
+            return quiet ? "quiet" : String.join(", ", busy);
+        }
+    }
+}
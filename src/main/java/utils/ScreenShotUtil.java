@@ -34,12 +34,7 @@ public class ScreenShotUtil {
             String fullPath = screenshotPath + fileName;
             
             // Take screenshot
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            File screenshot = ts.getScreenshotAs(OutputType.FILE);
-            
-            // Move to target location
-            File targetFile = new File(fullPath);
-            Files.copy(screenshot.toPath(), targetFile.toPath());
+            save(driver, fullPath, testName, prefix);
             
             LogUtil.logScreenshot(fullPath);
             return fullPath;
@@ -80,12 +75,7 @@ public class ScreenShotUtil {
                 "});";
             
             // For now, use regular screenshot as full page screenshot requires additional libraries
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            File screenshot = ts.getScreenshotAs(OutputType.FILE);
-            
-            // Move to target location
-            File targetFile = new File(fullPath);
-            Files.copy(screenshot.toPath(), targetFile.toPath());
+            save(driver, fullPath, testName, "fullpage");
             
             LogUtil.logScreenshot(fullPath);
             return fullPath;
@@ -124,12 +114,7 @@ public class ScreenShotUtil {
                 "}";
             
             // For now, use regular screenshot as element screenshot requires additional libraries
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            File screenshot = ts.getScreenshotAs(OutputType.FILE);
-            
-            // Move to target location
-            File targetFile = new File(fullPath);
-            Files.copy(screenshot.toPath(), targetFile.toPath());
+            save(driver, fullPath, testName, "element_" + elementSelector);
             
             LogUtil.logScreenshot(fullPath);
             return fullPath;
@@ -139,4 +124,16 @@ public class ScreenShotUtil {
             return "";
         }
     }
+
+    // Save a capture; through the deduplicating ArtifactStore unless artifact.store.enabled=false
+    private static void save(WebDriver driver, String fullPath, String testName, String step) throws IOException {
+        TakesScreenshot ts = (TakesScreenshot) driver;
+        if (ArtifactStore.isEnabled()) {
+            ArtifactStore.save(ts.getScreenshotAs(OutputType.BYTES), Paths.get(fullPath), testName, step,
+                    ArtifactStore.browserOf(driver));
+            return;
+        }
+        File screenshot = ts.getScreenshotAs(OutputType.FILE);
+        Files.copy(screenshot.toPath(), Paths.get(fullPath));
+    }
 }
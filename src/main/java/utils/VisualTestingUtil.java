@@ -1,5 +1,6 @@
 package utils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.openqa.selenium.*;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
@@ -7,7 +8,9 @@ import org.openqa.selenium.TakesScreenshot;
 import javax.imageio.ImageIO;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -16,6 +19,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class VisualTestingUtil {
     private WebDriver driver;
@@ -23,6 +30,7 @@ public class VisualTestingUtil {
     private static final String ACTUAL_DIR = "target/visual-tests/actual/";
     private static final String DIFF_DIR = "target/visual-tests/diff/";
     private static final double SIMILARITY_THRESHOLD = 0.95; // 95% similarity
+    private static final ObjectMapper mapper = new ObjectMapper();
 
     public VisualTestingUtil(WebDriver driver) {
         this.driver = driver;
@@ -43,14 +51,17 @@ public class VisualTestingUtil {
     public String captureFullPageScreenshot(String testName) {
         try {
             TakesScreenshot ts = (TakesScreenshot) driver;
-            File screenshot = ts.getScreenshotAs(OutputType.FILE);
             
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
             String fileName = testName + "_" + timestamp + ".png";
             String filePath = ACTUAL_DIR + fileName;
             
-            File targetFile = new File(filePath);
-            Files.copy(screenshot.toPath(), targetFile.toPath());
+            if (ArtifactStore.isEnabled()) {
+                ArtifactStore.save(ts.getScreenshotAs(OutputType.BYTES), Paths.get(filePath), testName, "fullpage",
+                        ArtifactStore.browserOf(driver));
+            } else {
+                Files.copy(ts.getScreenshotAs(OutputType.FILE).toPath(), Paths.get(filePath));
+            }
             
             LogUtil.info("Full page screenshot captured: " + filePath);
             return filePath;
@@ -63,14 +74,16 @@ public class VisualTestingUtil {
     // Capture element screenshot
     public String captureElementScreenshot(WebElement element, String testName) {
         try {
-            File screenshot = element.getScreenshotAs(OutputType.FILE);
-            
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
             String fileName = testName + "_element_" + timestamp + ".png";
             String filePath = ACTUAL_DIR + fileName;
             
-            File targetFile = new File(filePath);
-            Files.copy(screenshot.toPath(), targetFile.toPath());
+            if (ArtifactStore.isEnabled()) {
+                ArtifactStore.save(element.getScreenshotAs(OutputType.BYTES), Paths.get(filePath), testName, "element",
+                        ArtifactStore.browserOf(driver));
+            } else {
+                Files.copy(element.getScreenshotAs(OutputType.FILE).toPath(), Paths.get(filePath));
+            }
             
             LogUtil.info("Element screenshot captured: " + filePath);
             return filePath;
@@ -83,67 +96,144 @@ public class VisualTestingUtil {
     // Compare screenshots
     public boolean compareScreenshots(String baselinePath, String actualPath) {
         try {
-            BufferedImage baseline = ImageIO.read(new File(baselinePath));
             BufferedImage actual = ImageIO.read(new File(actualPath));
+            int[] changedTiles = null;
+            int tileSize = 0;
+            if (BaselineTileIndex.isEnabled()) {
+                // Tile hashes first: the baseline is only decoded if some tile changed
+                BaselineTileIndex index = BaselineTileIndex.load(Paths.get(baselinePath));
+                if (!index.matchesSize(actual)) {
+                    LogUtil.warn("Screenshot dimensions don't match");
+                    return false;
+                }
+                tileSize = index.tileSize;
+                ImageComparator.Summary expected = index.summary();
+                ImageComparator.Summary found = index.summarize(actual);
+                changedTiles = expected.changedTiles(found);
+                LogUtil.info(changedTiles.length + " of " + index.tileCount() + " tiles changed");
+                if (changedTiles.length == 0) {
+                    LogUtil.info("Screenshot similarity: 100.0%");
+                    return true;
+                }
+
+                // Then the downscaled level bounds the different pixels without decoding the baseline
+                long totalPixels = (long) actual.getWidth() * actual.getHeight();
+                long allowed = (long) Math.floor((1.0 - SIMILARITY_THRESHOLD) * totalPixels);
+                long atMost = expected.maxDifferentPixels(changedTiles);
+                if (atMost <= allowed) {
+                    LogUtil.info("Screenshot similarity: at least " + ((1.0 - (double) atMost / totalPixels) * 100) + "%");
+                    return true;
+                }
+                long atLeast = expected.minDifferentPixels(found, changedTiles);
+                if (atLeast > allowed) {
+                    LogUtil.info("Screenshot similarity below " + (SIMILARITY_THRESHOLD * 100) + "% (at least "
+                            + atLeast + " different pixels at 1/" + index.blockSize + " scale)");
+                    writeDiffRegions(ImageIO.read(new File(baselinePath)), actual, baselinePath, actualPath);
+                    return false;
+                }
+            }
             
+            BufferedImage baseline = ImageIO.read(new File(baselinePath));
             if (baseline.getWidth() != actual.getWidth() || baseline.getHeight() != actual.getHeight()) {
                 LogUtil.warn("Screenshot dimensions don't match");
                 return false;
             }
             
-            int width = baseline.getWidth();
-            int height = baseline.getHeight();
-            int totalPixels = width * height;
-            int differentPixels = 0;
-            
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    if (baseline.getRGB(x, y) != actual.getRGB(x, y)) {
-                        differentPixels++;
-                    }
-                }
+            ImageComparator.Result result = changedTiles != null
+                    ? ImageComparator.compareTiles(baseline, actual, tileSize, changedTiles, SIMILARITY_THRESHOLD)
+                    : ImageComparator.compare(baseline, actual, SIMILARITY_THRESHOLD);
+            if (result.isStoppedEarly()) {
+                LogUtil.info("Screenshot similarity below " + (SIMILARITY_THRESHOLD * 100) + "% (stopped after "
+                        + result.getDifferentPixels() + " different pixels)");
+            } else {
+                LogUtil.info("Screenshot similarity: " + (result.getSimilarity() * 100) + "%");
             }
             
-            double similarity = 1.0 - ((double) differentPixels / totalPixels);
-            LogUtil.info("Screenshot similarity: " + (similarity * 100) + "%");
-            
-            if (similarity < SIMILARITY_THRESHOLD) {
-                createDifferenceImage(baseline, actual, actualPath);
+            if (!result.isSimilar(SIMILARITY_THRESHOLD)) {
+                writeDiffRegions(baseline, actual, baselinePath, actualPath);
             }
             
-            return similarity >= SIMILARITY_THRESHOLD;
+            return result.isSimilar(SIMILARITY_THRESHOLD);
         } catch (IOException e) {
             LogUtil.error("Failed to compare screenshots", e);
             return false;
         }
     }
 
-    // Create difference image
-    private void createDifferenceImage(BufferedImage baseline, BufferedImage actual, String actualPath) {
+    // Describe the differences as regions: a JSON summary plus cropped thumbnails per region
+    private void writeDiffRegions(BufferedImage baseline, BufferedImage actual, String baselinePath, String actualPath) {
+        String prefix = actualPath.replace(ACTUAL_DIR, DIFF_DIR).replace(".png", "_diff");
+        int padding = ConfigReader.getInt("visual.diff.padding", 8);
+        int maxThumbnails = ConfigReader.getInt("visual.diff.max.regions", 10);
+        int maxThumbnailSize = ConfigReader.getInt("visual.diff.thumbnail.max.size", 400);
         try {
-            BufferedImage diff = new BufferedImage(baseline.getWidth(), baseline.getHeight(), BufferedImage.TYPE_INT_RGB);
-            
-            for (int y = 0; y < baseline.getHeight(); y++) {
-                for (int x = 0; x < baseline.getWidth(); x++) {
-                    int baselineRGB = baseline.getRGB(x, y);
-                    int actualRGB = actual.getRGB(x, y);
-                    
-                    if (baselineRGB != actualRGB) {
-                        diff.setRGB(x, y, Color.RED.getRGB()); // Highlight differences in red
+            List<ImageComparator.Region> regions = ImageComparator.diffRegions(baseline, actual,
+                    ConfigReader.getInt("visual.diff.cell.size", 16));
+
+            List<Map<String, Object>> described = new ArrayList<>();
+            long differentPixels = 0;
+            for (int i = 0; i < regions.size(); i++) {
+                ImageComparator.Region region = regions.get(i);
+                differentPixels += region.getDifferentPixels();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("x", region.getX());
+                entry.put("y", region.getY());
+                entry.put("width", region.getWidth());
+                entry.put("height", region.getHeight());
+                entry.put("differentPixels", region.getDifferentPixels());
+                if (i < maxThumbnails) {
+                    int x = Math.max(0, region.getX() - padding);
+                    int y = Math.max(0, region.getY() - padding);
+                    int width = Math.min(actual.getWidth(), region.getX() + region.getWidth() + padding) - x;
+                    int height = Math.min(actual.getHeight(), region.getY() + region.getHeight() + padding) - y;
+                    BufferedImage before = baseline.getSubimage(x, y, width, height);
+                    BufferedImage after = actual.getSubimage(x, y, width, height);
+                    String name = prefix + "_" + (i + 1);
+                    if (Math.max(width, height) > maxThumbnailSize) {
+                        // A page-sized region: scaled-down before/after only, a diff at this size says nothing more
+                        double scale = (double) maxThumbnailSize / Math.max(width, height);
+                        ImageIO.write(scaled(before, scale), "PNG", new File(name + "_baseline.png"));
+                        ImageIO.write(scaled(after, scale), "PNG", new File(name + "_actual.png"));
+                        entry.put("thumbnailScale", scale);
+                        entry.put("thumbnails", List.of(name + "_baseline.png", name + "_actual.png"));
                     } else {
-                        diff.setRGB(x, y, baselineRGB);
+                        ImageIO.write(before, "PNG", new File(name + "_baseline.png"));
+                        ImageIO.write(after, "PNG", new File(name + "_actual.png"));
+                        ImageIO.write(ImageComparator.diffImage(before, after), "PNG", new File(name + "_diff.png"));
+                        entry.put("thumbnails", List.of(name + "_baseline.png", name + "_actual.png", name + "_diff.png"));
                     }
                 }
+                described.add(entry);
             }
-            
-            String diffPath = actualPath.replace(ACTUAL_DIR, DIFF_DIR).replace(".png", "_diff.png");
-            ImageIO.write(diff, "PNG", new File(diffPath));
-            LogUtil.info("Difference image created: " + diffPath);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("baseline", baselinePath);
+            report.put("actual", actualPath);
+            report.put("width", actual.getWidth());
+            report.put("height", actual.getHeight());
+            report.put("differentPixels", differentPixels);
+            report.put("regions", described);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(prefix + ".json"), report);
+            LogUtil.info(regions.size() + " difference regions written: " + prefix + ".json");
         } catch (IOException e) {
-            LogUtil.error("Failed to create difference image", e);
+            LogUtil.error("Failed to write difference regions", e);
         }
     }
 
+    private static BufferedImage scaled(BufferedImage image, double scale) {
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
     // Visual regression test
     public boolean runVisualRegressionTest(String testName) {
         String baselinePath = BASELINE_DIR + testName + ".png";
@@ -157,8 +247,17 @@ public class VisualTestingUtil {
         if (!baselineFile.exists()) {
             // Create baseline if it doesn't exist
             try {
-                Files.copy(Paths.get(actualPath), baselineFile.toPath());
+                if (ArtifactStore.isEnabled()) {
+                    // Baselines are version-controlled and accepted by overwriting, so never link them to the store
+                    ArtifactStore.saveCopy(Files.readAllBytes(Paths.get(actualPath)), baselineFile.toPath(), testName,
+                            "baseline", ArtifactStore.browserOf(driver));
+                } else {
+                    Files.copy(Paths.get(actualPath), baselineFile.toPath());
+                }
                 LogUtil.info("Baseline created: " + baselinePath);
+                if (BaselineTileIndex.isEnabled()) {
+                    BaselineTileIndex.load(baselineFile.toPath());
+                }
                 return true;
             } catch (IOException e) {
                 LogUtil.error("Failed to create baseline", e);
@@ -257,7 +356,7 @@ public class VisualTestingUtil {
             
             for (Dimension viewport : viewports) {
                 driver.manage().window().setSize(new org.openqa.selenium.Dimension(viewport.width, viewport.height));
-                WaitUtil.sleep(1); // Wait for layout to adjust
+                WaitUtil.waitForQuiescence(driver); // Wait for layout to adjust
                 
                 // Check if page is still functional
                 if (!driver.findElement(By.tagName("body")).isDisplayed()) {
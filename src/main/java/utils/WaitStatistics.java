@@ -0,0 +1,206 @@
+package utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How long each wait actually took, keyed by calling page object and condition, persisted across
+ * runs (wait.stats.path). Once a key has enough samples, WaitUtil uses p99 times a safety factor
+ * in place of its default timeout and a fraction of the median as its polling interval: fast conditions are
+ * detected sooner and a broken locator fails in seconds instead of after explicit.wait.
+ */
+public class WaitStatistics {
+    private static final Set<String> INTERNAL_CLASSES = Set.of(
+            WaitUtil.class.getName(), WaitStatistics.class.getName(), BrowserWait.class.getName());
+
+    private static final Map<String, KeyStats> stats = new ConcurrentHashMap<>();
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static volatile boolean loaded;
+
+    public static boolean isAdaptive() {
+        return ConfigReader.getBoolean("wait.adaptive.enabled", false);
+    }
+
+    /**
+     * Statistics key for a condition: the page object (or test) that asked for the wait plus the condition
+     */
+    public static String key(String condition) {
+        String caller = StackWalker.getInstance()
+                .walk(frames -> frames
+                        .map(StackWalker.StackFrame::getClassName)
+                        .filter(name -> !INTERNAL_CLASSES.contains(name) && !name.startsWith("org.openqa."))
+                        .findFirst()
+                        .orElse("unknown"));
+        return caller.substring(caller.lastIndexOf('.') + 1) + " | " + condition;
+    }
+
+    /**
+     * Timeout for the key: p99 x wait.adaptive.safety.factor, at least wait.adaptive.min.timeout.ms,
+     * never above the requested timeout. WaitUtil only asks for framework default timeouts; an
+     * explicit timeoutSeconds is never shortened. The requested timeout is used until there is enough
+     * history, and right after an adaptive timeout so a slower application can re-learn.
+     */
+    public static Duration timeoutFor(String key, Duration requested) {
+        if (!isAdaptive()) {
+            return requested;
+        }
+        KeyStats keyStats = get(key);
+        if (keyStats == null || keyStats.lastTimedOut || keyStats.size() < getMinSamples()) {
+            return requested;
+        }
+        double factor = ConfigReader.getDouble("wait.adaptive.safety.factor", 3);
+        long adaptiveMs = Math.max(ConfigReader.getInt("wait.adaptive.min.timeout.ms", 2000),
+                (long) (keyStats.percentile(99) * factor));
+        return adaptiveMs < requested.toMillis() ? Duration.ofMillis(adaptiveMs) : requested;
+    }
+
+    /**
+     * Polling interval for the key: a fifth of the median wait, between 50ms and 500ms
+     */
+    public static Duration pollingFor(String key) {
+        KeyStats keyStats = isAdaptive() ? get(key) : null;
+        if (keyStats == null || keyStats.size() < getMinSamples()) {
+            return Duration.ofMillis(500);
+        }
+        return Duration.ofMillis(Math.max(50, Math.min(500, keyStats.percentile(50) / 5)));
+    }
+
+    public static void recordSuccess(String key, long elapsedMs) {
+        KeyStats keyStats = stats.computeIfAbsent(key, k -> new KeyStats());
+        keyStats.add(elapsedMs, ConfigReader.getInt("wait.stats.max.samples", 200));
+    }
+
+    /**
+     * Record a timeout; adaptive says whether the timeout was shortened from the requested one
+     */
+    public static void recordTimeout(String key, boolean adaptive) {
+        stats.computeIfAbsent(key, k -> new KeyStats()).timedOut(adaptive);
+        if (adaptive) {
+            LogUtil.warn("Adaptive wait timed out for " + key + "; next wait uses the full timeout");
+        }
+    }
+
+    public static Map<String, KeyStats> getStatistics() {
+        load();
+        return stats;
+    }
+
+    /**
+     * Write the statistics to wait.stats.path; called at the end of the suite
+     */
+    public static synchronized void save() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        load();
+        Path path = getPath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), "wait-statistics", ".tmp");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), stats);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LogUtil.info("Wait statistics saved for " + stats.size() + " condition(s): " + path);
+        } catch (IOException e) {
+            LogUtil.error("Failed to save wait statistics", e);
+        }
+    }
+
+    private static KeyStats get(String key) {
+        load();
+        return stats.get(key);
+    }
+
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (WaitStatistics.class) {
+            if (loaded) {
+                return;
+            }
+            Path path = getPath();
+            if (Files.exists(path)) {
+                try {
+                    Map<String, KeyStats> persisted = mapper.readValue(path.toFile(), new TypeReference<Map<String, KeyStats>>() {});
+                    // Samples recorded before the first lookup in this run are kept on top of history
+                    persisted.forEach((key, value) -> stats.merge(key, value, KeyStats::mergeHistory));
+                } catch (IOException e) {
+                    LogUtil.warn("Failed to read wait statistics " + path + ": " + e.getMessage());
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private static int getMinSamples() {
+        return ConfigReader.getInt("wait.adaptive.min.samples", 20);
+    }
+
+    private static Path getPath() {
+        // Outside target/ so that mvn clean keeps what earlier runs learned
+        return Paths.get(ConfigReader.get("wait.stats.path", ".wait-statistics.json")).toAbsolutePath();
+    }
+
+    /**
+     * Recent successful wait durations (ms) for one key, oldest first, plus timeout bookkeeping
+     */
+    public static class KeyStats {
+        public List<Long> samples = new ArrayList<>();
+        public int timeouts;
+        public boolean lastTimedOut;
+
+        synchronized void add(long elapsedMs, int maxSamples) {
+            samples.add(elapsedMs);
+            if (samples.size() > maxSamples) {
+                samples.subList(0, samples.size() - maxSamples).clear();
+            }
+            lastTimedOut = false;
+        }
+
+        synchronized void timedOut(boolean adaptive) {
+            timeouts++;
+            lastTimedOut = adaptive;
+        }
+
+        synchronized int size() {
+            return samples.size();
+        }
+
+        synchronized long percentile(int percentile) {
+            if (samples.isEmpty()) {
+                return 0;
+            }
+            long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+
+        private static KeyStats mergeHistory(KeyStats current, KeyStats history) {
+            synchronized (current) {
+                // A success in this run clears a timeout remembered from history
+                if (current.samples.isEmpty()) {
+                    current.lastTimedOut = current.lastTimedOut || history.lastTimedOut;
+                }
+                List<Long> merged = new ArrayList<>(history.samples);
+                merged.addAll(current.samples);
+                current.samples = merged;
+                current.timeouts += history.timeouts;
+                return current;
+            }
+        }
+    }
+}
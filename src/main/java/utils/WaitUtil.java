@@ -12,79 +12,77 @@ import java.util.List;
 public class WaitUtil {
     
     public static void waitForPageLoad(WebDriver driver) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getInt("page.load.timeout", 30)));
-        wait.until(webDriver -> ((JavascriptExecutor) webDriver)
-                .executeScript("return document.readyState").equals("complete"));
+        await(driver, BrowserWait.documentReady(), ConfigReader.getInt("page.load.timeout", 30), true);
         LogUtil.debug("Page load completed");
     }
     
     public static void waitForElementToBeVisible(WebDriver driver, By locator) {
-        waitForElementToBeVisible(driver, locator, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.visibilityOf(locator));
+        LogUtil.debug("Element visible: " + locator);
     }
     
     public static void waitForElementToBeVisible(WebDriver driver, By locator, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        await(driver, BrowserWait.visibilityOf(locator), timeoutSeconds);
         LogUtil.debug("Element visible: " + locator);
     }
     
     public static void waitForElementToBeClickable(WebDriver driver, By locator) {
-        waitForElementToBeClickable(driver, locator, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.clickabilityOf(locator));
+        LogUtil.debug("Element clickable: " + locator);
     }
     
     public static void waitForElementToBeClickable(WebDriver driver, By locator, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.elementToBeClickable(locator));
+        await(driver, BrowserWait.clickabilityOf(locator), timeoutSeconds);
         LogUtil.debug("Element clickable: " + locator);
     }
     
     public static void waitForElementToBePresent(WebDriver driver, By locator) {
-        waitForElementToBePresent(driver, locator, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.presenceOf(locator));
+        LogUtil.debug("Element present: " + locator);
     }
     
     public static void waitForElementToBePresent(WebDriver driver, By locator, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        await(driver, BrowserWait.presenceOf(locator), timeoutSeconds);
         LogUtil.debug("Element present: " + locator);
     }
     
     public static void waitForElementToDisappear(WebDriver driver, By locator) {
-        waitForElementToDisappear(driver, locator, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.invisibilityOf(locator));
+        LogUtil.debug("Element disappeared: " + locator);
     }
     
     public static void waitForElementToDisappear(WebDriver driver, By locator, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        await(driver, BrowserWait.invisibilityOf(locator), timeoutSeconds);
         LogUtil.debug("Element disappeared: " + locator);
     }
     
     public static void waitForTextToBePresent(WebDriver driver, By locator, String text) {
-        waitForTextToBePresent(driver, locator, text, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.textIn(locator, text));
+        LogUtil.debug("Text present in element: " + text);
     }
     
     public static void waitForTextToBePresent(WebDriver driver, By locator, String text, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+        await(driver, BrowserWait.textIn(locator, text), timeoutSeconds);
         LogUtil.debug("Text present in element: " + text);
     }
     
     public static void waitForUrlToContain(WebDriver driver, String partialUrl) {
-        waitForUrlToContain(driver, partialUrl, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.urlContains(partialUrl));
+        LogUtil.debug("URL contains: " + partialUrl);
     }
     
     public static void waitForUrlToContain(WebDriver driver, String partialUrl, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.urlContains(partialUrl));
+        await(driver, BrowserWait.urlContains(partialUrl), timeoutSeconds);
         LogUtil.debug("URL contains: " + partialUrl);
     }
     
     public static void waitForTitleToContain(WebDriver driver, String partialTitle) {
-        waitForTitleToContain(driver, partialTitle, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.titleContains(partialTitle));
+        LogUtil.debug("Title contains: " + partialTitle);
     }
     
     public static void waitForTitleToContain(WebDriver driver, String partialTitle, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.titleContains(partialTitle));
+        await(driver, BrowserWait.titleContains(partialTitle), timeoutSeconds);
         LogUtil.debug("Title contains: " + partialTitle);
     }
     
@@ -109,32 +107,32 @@ public class WaitUtil {
     }
     
     public static void waitForNumberOfElements(WebDriver driver, By locator, int expectedCount) {
-        waitForNumberOfElements(driver, locator, expectedCount, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.countOf(locator, expectedCount));
+        LogUtil.debug("Number of elements: " + expectedCount);
     }
     
     public static void waitForNumberOfElements(WebDriver driver, By locator, int expectedCount, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.numberOfElementsToBe(locator, expectedCount));
+        await(driver, BrowserWait.countOf(locator, expectedCount), timeoutSeconds);
         LogUtil.debug("Number of elements: " + expectedCount);
     }
     
     public static void waitForElementToHaveAttribute(WebDriver driver, By locator, String attribute, String value) {
-        waitForElementToHaveAttribute(driver, locator, attribute, value, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.attributeOf(locator, attribute, value));
+        LogUtil.debug("Element has attribute: " + attribute + " = " + value);
     }
     
     public static void waitForElementToHaveAttribute(WebDriver driver, By locator, String attribute, String value, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.attributeToBe(locator, attribute, value));
+        await(driver, BrowserWait.attributeOf(locator, attribute, value), timeoutSeconds);
         LogUtil.debug("Element has attribute: " + attribute + " = " + value);
     }
     
     public static void waitForElementToBeSelected(WebDriver driver, By locator) {
-        waitForElementToBeSelected(driver, locator, ConfigReader.getInt("explicit.wait", 20));
+        awaitDefault(driver, BrowserWait.selectionOf(locator));
+        LogUtil.debug("Element selected: " + locator);
     }
     
     public static void waitForElementToBeSelected(WebDriver driver, By locator, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        wait.until(ExpectedConditions.elementToBeSelected(locator));
+        await(driver, BrowserWait.selectionOf(locator), timeoutSeconds);
         LogUtil.debug("Element selected: " + locator);
     }
     
@@ -148,6 +146,48 @@ public class WaitUtil {
         LogUtil.debug("Element became stale");
     }
     
+    /**
+     * Wait for several conditions in one loop, e.g. waitForAll(driver, BrowserWait.visibilityOf(form),
+     * BrowserWait.urlContains("/checkout"), BrowserWait.invisibilityOf(spinner)); the timeout
+     * message lists the conditions still pending
+     */
+    public static void waitForAll(WebDriver driver, BrowserWait.Condition... conditions) {
+        awaitDefault(driver, BrowserWait.allOf(conditions));
+        LogUtil.debug("All " + conditions.length + " conditions met");
+    }
+    
+    public static void waitForAll(WebDriver driver, int timeoutSeconds, BrowserWait.Condition... conditions) {
+        await(driver, BrowserWait.allOf(conditions), timeoutSeconds);
+        LogUtil.debug("All " + conditions.length + " conditions met");
+    }
+    
+    /**
+     * Wait until at least one of the conditions holds, checked together in one loop
+     */
+    public static void waitForAny(WebDriver driver, BrowserWait.Condition... conditions) {
+        awaitDefault(driver, BrowserWait.anyOf(conditions));
+        LogUtil.debug("One of " + conditions.length + " conditions met");
+    }
+    
+    public static void waitForAny(WebDriver driver, int timeoutSeconds, BrowserWait.Condition... conditions) {
+        await(driver, BrowserWait.anyOf(conditions), timeoutSeconds);
+        LogUtil.debug("One of " + conditions.length + " conditions met");
+    }
+    
+    /**
+     * Wait until the page is idle: document complete, no XHR/fetch, jQuery or Angular work in
+     * flight and no finite animation running. Covers waitForPageLoad, waitForJQueryToLoad and
+     * waitForAngularToLoad in one probe per poll.
+     */
+    public static void waitForQuiescence(WebDriver driver) {
+        waitForQuiescence(driver, ConfigReader.getInt("explicit.wait", 20));
+    }
+    
+    public static void waitForQuiescence(WebDriver driver, int timeoutSeconds) {
+        QuiescenceProbe.waitUntilQuiet(driver, Duration.ofSeconds(timeoutSeconds));
+        LogUtil.debug("Application quiet");
+    }
+    
     public static void waitForJQueryToLoad(WebDriver driver) {
         waitForJQueryToLoad(driver, ConfigReader.getInt("explicit.wait", 20));
     }
@@ -182,6 +222,38 @@ public class WaitUtil {
         LogUtil.debug("Angular loaded");
     }
     
+    // Framework default timeout (explicit.wait), which wait.adaptive.enabled may shorten
+    private static void awaitDefault(WebDriver driver, BrowserWait.Condition condition) {
+        await(driver, condition, ConfigReader.getInt("explicit.wait", 20), true);
+    }
+    
+    // A timeout the caller passed explicitly is always honoured
+    private static void await(WebDriver driver, BrowserWait.Condition condition, int timeoutSeconds) {
+        await(driver, condition, timeoutSeconds, false);
+    }
+    
+    /**
+     * Wait for a condition with the configured engine. Polling adapts to the recorded history of
+     * the condition; with adaptive set (framework defaults only) so does the timeout.
+     */
+    private static void await(WebDriver driver, BrowserWait.Condition condition, int timeoutSeconds, boolean adaptive) {
+        String key = WaitStatistics.key(condition.toString());
+        Duration requested = Duration.ofSeconds(timeoutSeconds);
+        Duration timeout = adaptive ? WaitStatistics.timeoutFor(key, requested) : requested;
+        long start = System.currentTimeMillis();
+        try {
+            if (BrowserWait.isEnabled()) {
+                BrowserWait.until(driver, condition, timeout);
+            } else {
+                BrowserWait.poll(driver, condition, timeout, WaitStatistics.pollingFor(key));
+            }
+        } catch (TimeoutException e) {
+            WaitStatistics.recordTimeout(key, timeout.compareTo(requested) < 0);
+            throw e;
+        }
+        WaitStatistics.recordSuccess(key, System.currentTimeMillis() - start);
+    }
+    
     public static void sleep(int seconds) {
         try {
             Thread.sleep(seconds * 1000L);
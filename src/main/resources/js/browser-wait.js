@@ -0,0 +1,158 @@
+// Waits inside the page for a condition described by arguments[0] and calls back once it holds
+// or arguments[1] milliseconds pass. Re-evaluated on DOM mutations (batched per animation frame),
+// transition/animation ends and a short in-page interval for state the DOM does not reflect (URL).
+// 'all' and 'any' specs hold a list of conditions checked together; a timeout reports the pending ones.
+var spec = arguments[0];
+var timeoutMs = arguments[1];
+var done = arguments[arguments.length - 1];
+
+function find(s) {
+    var using = s.using, value = s.value;
+    if (using === 'css selector') {
+        return Array.prototype.slice.call(document.querySelectorAll(value));
+    }
+    if (using === 'id') {
+        return Array.prototype.slice.call(document.querySelectorAll('#' + CSS.escape(value)));
+    }
+    if (using === 'name') {
+        return Array.prototype.slice.call(document.querySelectorAll('[name="' + CSS.escape(value) + '"]'));
+    }
+    if (using === 'class name') {
+        return Array.prototype.slice.call(document.querySelectorAll('.' + CSS.escape(value)));
+    }
+    if (using === 'tag name') {
+        return Array.prototype.slice.call(document.getElementsByTagName(value));
+    }
+    if (using === 'xpath') {
+        var result = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+        var nodes = [];
+        for (var i = 0; i < result.snapshotLength; i++) {
+            nodes.push(result.snapshotItem(i));
+        }
+        return nodes;
+    }
+    if (using === 'link text' || using === 'partial link text') {
+        return Array.prototype.slice.call(document.querySelectorAll('a')).filter(function (a) {
+            var text = (a.innerText || a.textContent || '').trim();
+            return using === 'link text' ? text === value : text.indexOf(value) >= 0;
+        });
+    }
+    throw new Error('Unsupported locator strategy: ' + using);
+}
+
+function isVisible(element) {
+    if (!element.isConnected) {
+        return false;
+    }
+    var rect = element.getBoundingClientRect();
+    if (rect.width === 0 && rect.height === 0) {
+        return false;
+    }
+    for (var node = element; node && node.nodeType === 1; node = node.parentElement) {
+        var style = window.getComputedStyle(node);
+        if (style.display === 'none' || style.visibility === 'hidden' || parseFloat(style.opacity) === 0) {
+            return false;
+        }
+    }
+    return true;
+}
+
+var pending = [];
+
+function check(s) {
+    var elements;
+    switch (s.type) {
+        case 'present':
+            return find(s).length > 0;
+        case 'visible':
+            // Like the ExpectedConditions these replace, only the first match counts
+            elements = find(s);
+            return elements.length > 0 && isVisible(elements[0]);
+        case 'clickable':
+            elements = find(s);
+            return elements.length > 0 && isVisible(elements[0]) && !elements[0].disabled;
+        case 'invisible':
+            elements = find(s);
+            return elements.length === 0 || !isVisible(elements[0]);
+        case 'text':
+            elements = find(s);
+            return elements.length > 0 && (elements[0].innerText || elements[0].textContent || '').indexOf(s.expected) >= 0;
+        case 'attribute':
+            elements = find(s);
+            return elements.length > 0 && String(elements[0].getAttribute(s.name)) === s.expected;
+        case 'count':
+            return find(s).length === s.expected;
+        case 'selected':
+            elements = find(s);
+            return elements.length > 0 && (elements[0].selected === true || elements[0].checked === true);
+        case 'url':
+            return window.location.href.indexOf(s.expected) >= 0;
+        case 'title':
+            return document.title.indexOf(s.expected) >= 0;
+        case 'ready':
+            return document.readyState === 'complete';
+        case 'all':
+        case 'any':
+            var unmet = s.conditions.filter(function (c) { return !check(c); });
+            if (s === spec) {
+                pending = unmet.map(function (c) { return c.description; });
+            }
+            return s.type === 'all' ? unmet.length === 0 : unmet.length < s.conditions.length;
+        default:
+            throw new Error('Unsupported wait condition: ' + s.type);
+    }
+}
+
+var finished = false;
+var observer = null;
+var interval = null;
+var timer = null;
+var framePending = false;
+
+function finish(result) {
+    if (finished) {
+        return;
+    }
+    finished = true;
+    if (observer) {
+        observer.disconnect();
+    }
+    clearInterval(interval);
+    clearTimeout(timer);
+    document.removeEventListener('transitionend', evaluate, true);
+    document.removeEventListener('animationend', evaluate, true);
+    done(result);
+}
+
+function evaluate() {
+    framePending = false;
+    try {
+        if (check(spec)) {
+            finish({met: true});
+        }
+    } catch (e) {
+        finish({met: false, error: String(e && e.message || e)});
+    }
+}
+
+function schedule() {
+    if (!framePending && !finished) {
+        framePending = true;
+        // rAF does not fire in background tabs, so fall back to a macrotask there
+        if (document.hidden) {
+            setTimeout(evaluate, 0);
+        } else {
+            window.requestAnimationFrame(evaluate);
+        }
+    }
+}
+
+evaluate();
+if (!finished) {
+    observer = new MutationObserver(schedule);
+    observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});
+    document.addEventListener('transitionend', evaluate, true);
+    document.addEventListener('animationend', evaluate, true);
+    interval = setInterval(evaluate, spec.pollMs || 100);
+    timer = setTimeout(function () { finish({met: false, pending: pending}); }, timeoutMs);
+}
@@ -0,0 +1,45 @@
+// Resolves every [using, value] pair in arguments[0] (W3C locator strategies) in one call and
+// returns one array of elements per pair; a locator that fails yields null and stays lazy.
+var locators = arguments[0];
+
+function all(nodes) {
+    return Array.prototype.slice.call(nodes);
+}
+
+function find(using, value) {
+    switch (using) {
+        case 'css selector':
+            return all(document.querySelectorAll(value));
+        case 'id':
+            return all(document.querySelectorAll('#' + CSS.escape(value)));
+        case 'name':
+            return all(document.querySelectorAll('[name="' + CSS.escape(value) + '"]'));
+        case 'class name':
+            return all(document.querySelectorAll('.' + CSS.escape(value)));
+        case 'tag name':
+            return all(document.getElementsByTagName(value));
+        case 'xpath':
+            var result = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+            var nodes = [];
+            for (var i = 0; i < result.snapshotLength; i++) {
+                nodes.push(result.snapshotItem(i));
+            }
+            return nodes;
+        case 'link text':
+        case 'partial link text':
+            return all(document.querySelectorAll('a')).filter(function (a) {
+                var text = (a.innerText || a.textContent || '').trim();
+                return using === 'link text' ? text === value : text.indexOf(value) >= 0;
+            });
+        default:
+            throw new Error('Unsupported locator strategy: ' + using);
+    }
+}
+
+return locators.map(function (locator) {
+    try {
+        return find(locator[0], locator[1]);
+    } catch (e) {
+        return null;
+    }
+});
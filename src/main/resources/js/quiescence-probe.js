@@ -0,0 +1,138 @@
+// Tracks what keeps the page busy: document loading, pending XHR and fetch calls, jQuery and
+// Angular requests, and running CSS/Web animations. Installed once per document (before page
+// scripts when the driver supports CDP) and queried with window.__seleniumQuiescence.status(options).
+(function () {
+    if (window.__seleniumQuiescence) {
+        return;
+    }
+    var pending = {xhr: 0, fetch: 0};
+    var lastActivity = 0;
+
+    function started(kind) {
+        pending[kind]++;
+        lastActivity = Date.now();
+    }
+
+    function finished(kind) {
+        pending[kind] = Math.max(0, pending[kind] - 1);
+        lastActivity = Date.now();
+    }
+
+    if (window.XMLHttpRequest) {
+        var send = XMLHttpRequest.prototype.send;
+        XMLHttpRequest.prototype.send = function () {
+            var settled = false;
+            var settle = function () {
+                if (!settled) {
+                    settled = true;
+                    finished('xhr');
+                }
+            };
+            started('xhr');
+            this.addEventListener('loadend', settle);
+            try {
+                return send.apply(this, arguments);
+            } catch (e) {
+                settle();
+                throw e;
+            }
+        };
+    }
+
+    if (window.fetch) {
+        var fetch = window.fetch;
+        window.fetch = function () {
+            var settle = function () {
+                finished('fetch');
+            };
+            started('fetch');
+            var promise;
+            try {
+                promise = fetch.apply(this, arguments);
+            } catch (e) {
+                settle();
+                throw e;
+            }
+            promise.then(settle, settle);
+            return promise;
+        };
+    }
+
+    function angularJsPending() {
+        var root = document.querySelector('[ng-app],[data-ng-app],.ng-scope') || document;
+        var injector = window.angular.element(root).injector();
+        return injector ? injector.get('$http').pendingRequests.length : 0;
+    }
+
+    function runningAnimations() {
+        return document.getAnimations().filter(function (animation) {
+            if (animation.playState !== 'running') {
+                return false;
+            }
+            // Spinners and other infinite animations never finish; they do not mean the page is busy
+            var timing = animation.effect && animation.effect.getComputedTiming ? animation.effect.getComputedTiming() : null;
+            return !timing || timing.endTime !== Infinity;
+        }).length;
+    }
+
+    function status(options) {
+        options = options || {};
+        var busy = [];
+        if (document.readyState !== 'complete') {
+            busy.push('document ' + document.readyState);
+        }
+        if (pending.xhr > 0) {
+            busy.push(pending.xhr + ' XHR request(s)');
+        }
+        if (pending.fetch > 0) {
+            busy.push(pending.fetch + ' fetch request(s)');
+        }
+        var idleMs = Date.now() - lastActivity;
+        if (pending.xhr + pending.fetch === 0 && idleMs < (options.networkIdleMs || 0)) {
+            busy.push('network idle for ' + idleMs + 'ms only');
+        }
+        try {
+            if (window.jQuery) {
+                if (window.jQuery.active > 0) {
+                    busy.push('jQuery: ' + window.jQuery.active + ' active request(s)');
+                }
+                if (options.animations !== false && window.jQuery.timers && window.jQuery.timers.length > 0) {
+                    busy.push('jQuery: ' + window.jQuery.timers.length + ' animation(s)');
+                }
+            }
+        } catch (e) {
+            // Not the real jQuery
+        }
+        try {
+            if (window.angular && window.angular.element) {
+                var angularJs = angularJsPending();
+                if (angularJs > 0) {
+                    busy.push('AngularJS: ' + angularJs + ' pending $http request(s)');
+                }
+            }
+        } catch (e) {
+            // AngularJS present but not bootstrapped
+        }
+        try {
+            if (window.getAllAngularTestabilities) {
+                var unstable = window.getAllAngularTestabilities().filter(function (t) {
+                    return !t.isStable();
+                }).length;
+                if (unstable > 0) {
+                    busy.push('Angular: ' + unstable + ' app(s) not stable');
+                }
+            }
+        } catch (e) {
+            // Angular testability not available
+        }
+        if (options.animations !== false && document.getAnimations) {
+            var animations = runningAnimations();
+            if (animations > 0) {
+                busy.push(animations + ' running animation(s)');
+            }
+        }
+        return {quiet: busy.length === 0, busy: busy};
+    }
+
+    window.__seleniumQuiescence = {status: status};
+})();
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ImageComparator;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getRGB loop (the previous VisualTestingUtil.compareScreenshots) against ImageComparator on a
+ * 1920x5000 full-page capture in the layout ImageIO returns for RGB PNGs (TYPE_3BYTE_BGR).
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageComparisonBenchmark {
+    private static final double THRESHOLD = 0.95;
+
+    // identical: nothing differs; smallDiff: 1% of pixels differ; largeDiff: a different page
+    @Param({"identical", "smallDiff", "largeDiff"})
+    public String scenario;
+
+    private BufferedImage baseline;
+    private BufferedImage actual;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        baseline = capture(1920, 5000, 1);
+        switch (scenario) {
+            case "identical":
+                actual = copy(baseline);
+                break;
+            case "smallDiff":
+                actual = copy(baseline);
+                Random random = new Random(2);
+                for (int i = 0; i < 1920 * 5000 / 100; i++) {
+                    actual.setRGB(random.nextInt(1920), random.nextInt(5000), 0xFFFF00FF);
+                }
+                break;
+            default:
+                actual = capture(1920, 5000, 3);
+                break;
+        }
+    }
+
+    @Benchmark
+    public boolean getRgbLoop() {
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        int differentPixels = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (baseline.getRGB(x, y) != actual.getRGB(x, y)) {
+                    differentPixels++;
+                }
+            }
+        }
+        return 1.0 - ((double) differentPixels / (width * height)) >= THRESHOLD;
+    }
+
+    @Benchmark
+    public boolean rasterFullCount() {
+        return ImageComparator.compare(baseline, actual, THRESHOLD, false).isSimilar(THRESHOLD);
+    }
+
+    @Benchmark
+    public boolean rasterEarlyExit() {
+        return ImageComparator.compare(baseline, actual, THRESHOLD).isSimilar(THRESHOLD);
+    }
+
+    private static BufferedImage capture(int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        new Random(seed).nextBytes(((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage source) {
+        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), source.getType());
+        byte[] from = ((DataBufferByte) source.getRaster().getDataBuffer()).getData();
+        byte[] to = ((DataBufferByte) copy.getRaster().getDataBuffer()).getData();
+        System.arraycopy(from, 0, to, 0, from.length);
+        return copy;
+    }
+}
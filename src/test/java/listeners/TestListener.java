@@ -3,10 +3,12 @@ package listeners;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import driver.LazyDriver;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
+import utils.ExecutionContext;
 import utils.ExtentReportManager;
 import utils.LogUtil;
 import utils.ScreenShotUtil;
@@ -15,7 +17,8 @@ import java.lang.reflect.Method;
 
 public class TestListener implements ITestListener {
     private static final ExtentReports extentReports = ExtentReportManager.getInstance();
-    private static ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+    // Report node is kept on the invocation's result so it is never tied to the thread running the test
+    private static final String EXTENT_TEST_ATTRIBUTE = TestListener.class.getName() + ".extentTest";
 
     @Override
     public void onTestStart(ITestResult result) {
@@ -27,7 +30,7 @@ public class TestListener implements ITestListener {
         
         // Create ExtentTest instance
         ExtentTest test = extentReports.createTest(className + " - " + testName);
-        extentTest.set(test);
+        result.setAttribute(EXTENT_TEST_ATTRIBUTE, test);
         
         // Add test parameters
         if (result.getParameters().length > 0) {
@@ -47,7 +50,7 @@ public class TestListener implements ITestListener {
         String testName = result.getName();
         LogUtil.logTestEnd(testName, "PASSED");
         
-        ExtentTest test = extentTest.get();
+        ExtentTest test = getExtentTest(result);
         if (test != null) {
             test.log(Status.PASS, "Test passed successfully");
             test.log(Status.INFO, "Execution time: " + (result.getEndMillis() - result.getStartMillis()) + "ms");
@@ -59,14 +62,14 @@ public class TestListener implements ITestListener {
         String testName = result.getName();
         LogUtil.logTestEnd(testName, "FAILED");
         
-        ExtentTest test = extentTest.get();
+        ExtentTest test = getExtentTest(result);
         if (test != null) {
             test.log(Status.FAIL, "Test failed: " + result.getThrowable().getMessage());
             
             // Capture screenshot on failure
             try {
                 WebDriver driver = getDriverFromResult(result);
-                if (driver != null) {
+                if (LazyDriver.isStarted(driver)) {
                     String screenshotPath = ScreenShotUtil.capture(driver, testName);
                     test.addScreenCaptureFromPath(screenshotPath);
                     LogUtil.logScreenshot(screenshotPath);
@@ -85,7 +88,7 @@ public class TestListener implements ITestListener {
         String testName = result.getName();
         LogUtil.logTestEnd(testName, "SKIPPED");
         
-        ExtentTest test = extentTest.get();
+        ExtentTest test = getExtentTest(result);
         if (test != null) {
             test.log(Status.SKIP, "Test skipped: " + result.getThrowable().getMessage());
         }
@@ -96,7 +99,7 @@ public class TestListener implements ITestListener {
         String testName = result.getName();
         LogUtil.logTestEnd(testName, "FAILED_WITH_SUCCESS_PERCENTAGE");
         
-        ExtentTest test = extentTest.get();
+        ExtentTest test = getExtentTest(result);
         if (test != null) {
             test.log(Status.WARNING, "Test failed but within success percentage");
         }
@@ -144,11 +147,20 @@ public class TestListener implements ITestListener {
         return null;
     }
 
+    private ExtentTest getExtentTest(ITestResult result) {
+        Object test = result.getAttribute(EXTENT_TEST_ATTRIBUTE);
+        return test instanceof ExtentTest ? (ExtentTest) test : null;
+    }
+
     public static ExtentTest getExtentTest() {
-        return extentTest.get();
+        ExecutionContext context = ExecutionContext.current();
+        return context != null ? context.getReportNode() : null;
     }
 
     public static void setExtentTest(ExtentTest test) {
-        extentTest.set(test);
+        ExecutionContext context = ExecutionContext.current();
+        if (context != null) {
+            context.setReportNode(test);
+        }
     }
 } 
\ No newline at end of file
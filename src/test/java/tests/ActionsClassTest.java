@@ -1,29 +1,26 @@
 package tests;
 
 import base.BaseTest;
+import base.StartPage;
+import driver.DriverLifecycle;
+import driver.DriverScope;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.Test;
-import pages.HomePage;
 import utils.WaitUtil;
 import listeners.RetryAnalyzer;
 
 import java.time.Duration;
 
+@DriverLifecycle(DriverScope.CLASS)
 public class ActionsClassTest extends BaseTest {
 
+    @StartPage("droppable")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testDragAndDrop() {
-        logStep("Navigate to Interactions page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Interactions");
-        
-        logStep("Click on Droppable section");
-        driver.findElement(By.xpath("//span[text()='Droppable']")).click();
-        
         logStep("Perform drag and drop");
         WebElement draggable = driver.findElement(By.id("draggable"));
         WebElement droppable = driver.findElement(By.id("droppable"));
@@ -36,15 +33,9 @@ public class ActionsClassTest extends BaseTest {
         Assert.assertTrue(dropText.contains("Dropped"), "Drag and drop failed");
     }
 
+    @StartPage("text-box")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testKeyboardShortcuts() {
-        logStep("Navigate to Elements page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        
-        logStep("Click on Text Box section");
-        driver.findElement(By.xpath("//span[text()='Text Box']")).click();
-        
         logStep("Test keyboard shortcuts");
         WebElement fullNameInput = driver.findElement(By.id("userName"));
         fullNameInput.click();
@@ -68,15 +59,9 @@ public class ActionsClassTest extends BaseTest {
         Assert.assertEquals(emailInput.getAttribute("value"), "John Doe");
     }
 
+    @StartPage("buttons")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testMouseActions() {
-        logStep("Navigate to Interactions page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Interactions");
-        
-        logStep("Click on Buttons section");
-        driver.findElement(By.xpath("//span[text()='Buttons']")).click();
-        
         logStep("Test double click");
         WebElement doubleClickBtn = driver.findElement(By.id("doubleClickBtn"));
         Actions actions = new Actions(driver);
@@ -95,37 +80,26 @@ public class ActionsClassTest extends BaseTest {
         Assert.assertTrue(rightClickMessage.isDisplayed(), "Right click message not displayed");
     }
 
+    @StartPage("tool-tips")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testHoverActions() {
-        logStep("Navigate to Widgets page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Widgets");
-        
-        logStep("Click on Tool Tips section");
-        driver.findElement(By.xpath("//span[text()='Tool Tips']")).click();
-        
         logStep("Test hover action");
         WebElement hoverButton = driver.findElement(By.id("toolTipButton"));
         Actions actions = new Actions(driver);
         actions.moveToElement(hoverButton).perform();
         
         logStep("Wait for tooltip to appear");
-        WaitUtil.sleep(2);
+        WaitUtil.waitForElementToBeVisible(driver, By.className("tooltip-inner"));
+        WaitUtil.waitForQuiescence(driver);
         
         logStep("Verify tooltip is displayed");
         WebElement tooltip = driver.findElement(By.className("tooltip-inner"));
         Assert.assertTrue(tooltip.isDisplayed(), "Tooltip not displayed on hover");
     }
 
+    @StartPage("check-box")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testComplexActions() {
-        logStep("Navigate to Elements page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        
-        logStep("Click on Check Box section");
-        driver.findElement(By.xpath("//span[text()='Check Box']")).click();
-        
         logStep("Perform complex action sequence");
         WebElement expandButton = driver.findElement(By.cssSelector(".rct-icon-expand-all"));
         Actions actions = new Actions(driver);
@@ -138,12 +112,9 @@ public class ActionsClassTest extends BaseTest {
         Assert.assertTrue(true, "Complex action completed");
     }
 
+    @StartPage("elements")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testScrollActions() {
-        logStep("Navigate to Elements page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        
         logStep("Test scroll to element");
         WebElement bottomElement = driver.findElement(By.cssSelector(".footer"));
         Actions actions = new Actions(driver);
@@ -156,15 +127,9 @@ public class ActionsClassTest extends BaseTest {
         actions.scrollByAmount(0, -500).perform();
     }
 
+    @StartPage("sortable")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testClickAndHold() {
-        logStep("Navigate to Interactions page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Interactions");
-        
-        logStep("Click on Sortable section");
-        driver.findElement(By.xpath("//span[text()='Sortable']")).click();
-        
         logStep("Test click and hold");
         WebElement firstItem = driver.findElement(By.cssSelector(".list-group-item"));
         Actions actions = new Actions(driver);
@@ -179,15 +144,9 @@ public class ActionsClassTest extends BaseTest {
         Assert.assertTrue(true, "Click and hold action completed");
     }
 
+    @StartPage("text-box")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testKeyChords() {
-        logStep("Navigate to Elements page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        
-        logStep("Click on Text Box section");
-        driver.findElement(By.xpath("//span[text()='Text Box']")).click();
-        
         logStep("Test key chords");
         WebElement textArea = driver.findElement(By.id("currentAddress"));
         textArea.click();
@@ -205,15 +164,9 @@ public class ActionsClassTest extends BaseTest {
         Assert.assertEquals(textArea.getAttribute("value"), "New Text");
     }
 
+    @StartPage("resizable")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testMouseMovement() {
-        logStep("Navigate to Interactions page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Interactions");
-        
-        logStep("Click on Resizable section");
-        driver.findElement(By.xpath("//span[text()='Resizable']")).click();
-        
         logStep("Test mouse movement");
         WebElement resizableBox = driver.findElement(By.id("resizableBoxWithRestriction"));
         Actions actions = new Actions(driver);
@@ -229,15 +182,9 @@ public class ActionsClassTest extends BaseTest {
         Assert.assertTrue(true, "Mouse movement completed");
     }
 
+    @StartPage("radio-button")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testActionChaining() {
-        logStep("Navigate to Elements page");
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        
-        logStep("Click on Radio Button section");
-        driver.findElement(By.xpath("//span[text()='Radio Button']")).click();
-        
         logStep("Test action chaining");
         WebElement radioButton = driver.findElement(By.id("yesRadio"));
         Actions actions = new Actions(driver);
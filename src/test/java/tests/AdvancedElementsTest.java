@@ -1,13 +1,13 @@
 package tests;
 
 import base.BaseTest;
+import base.StartPage;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.Test;
-import pages.HomePage;
 import utils.WaitUtil;
 import listeners.RetryAnalyzer;
 
@@ -17,71 +17,60 @@ import java.util.List;
 
 public class AdvancedElementsTest extends BaseTest {
 
+    @StartPage("upload-download")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testFileUpload() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        driver.findElement(By.xpath("//span[text()='Upload and Download']")).click();
         String filePath = System.getProperty("user.dir") + "/src/test/resources/data/sample-upload.txt";
         driver.findElement(By.id("uploadFile")).sendKeys(filePath);
         String uploadedPath = driver.findElement(By.id("uploadedFilePath")).getText();
         Assert.assertTrue(uploadedPath.contains("sample-upload.txt"));
     }
 
+    @StartPage("upload-download")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testFileDownload() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        driver.findElement(By.xpath("//span[text()='Upload and Download']")).click();
         driver.findElement(By.id("downloadButton")).click();
         // Add assertion for file existence if needed (requires custom download dir setup)
     }
 
+    @StartPage("elements")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testJavaScriptExecutor() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("window.scrollBy(0,500)");
         String title = (String) js.executeScript("return document.title;");
         Assert.assertTrue(title.contains("DEMOQA"));
     }
 
+    @StartPage("elements")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testKeyboardMouseSimulation() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
         Actions actions = new Actions(driver);
         WebElement searchBox = driver.findElement(By.tagName("body"));
         actions.moveToElement(searchBox).click().sendKeys(Keys.TAB).sendKeys("Test").perform();
         // No assertion, just demo
     }
 
+    @StartPage("dynamic-properties")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testDynamicWaits() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Dynamic Properties");
         By enableAfter = By.id("enableAfter");
         WaitUtil.waitForElementToBeClickable(driver, enableAfter, 10);
         Assert.assertTrue(driver.findElement(enableAfter).isEnabled());
     }
 
+    @StartPage("frames")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testFrameHandling() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Alerts, Frame & Windows");
-        driver.findElement(By.xpath("//span[text()='Frames']")).click();
         driver.switchTo().frame("frame1");
         String frameText = driver.findElement(By.id("sampleHeading")).getText();
         Assert.assertTrue(frameText.contains("This is a sample page"));
         driver.switchTo().defaultContent();
     }
 
+    @StartPage("web-tables")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testTableOperations() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Elements");
-        driver.findElement(By.xpath("//span[text()='Web Tables']")).click();
         List<WebElement> rows = driver.findElements(By.cssSelector(".rt-tbody .rt-tr-group"));
         Assert.assertTrue(rows.size() > 0);
         // Example: Find a cell value
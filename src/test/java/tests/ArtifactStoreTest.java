@@ -0,0 +1,88 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import utils.ArtifactStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Checks that identical captures share one stored object and are indexed per test, step and browser.
+ * Each test uses its own store under target/, so tests can run in parallel and leave nothing behind.
+ */
+public class ArtifactStoreTest {
+
+    private static Path newStore() throws IOException {
+        // Under target so the links and the store share a file system
+        return Files.createTempDirectory(Files.createDirectories(Paths.get("target")), "artifact-store");
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testIdenticalCapturesShareOneObject() throws IOException {
+        byte[] png = ("png-" + UUID.randomUUID()).getBytes();
+        Path root = newStore();
+        try {
+            Path dir = root.resolve("screenshots");
+            Path first = ArtifactStore.save(root, png, dir.resolve("first.png"), "login", "screenshot", "chrome", true);
+            Path retry = ArtifactStore.save(root, png, dir.resolve("retry.png"), "login", "screenshot", "firefox", true);
+
+            Assert.assertEquals(Files.readAllBytes(retry), png);
+            Path object = ArtifactStore.objectFor(root, ArtifactStore.lookup(root, "login", "screenshot", "firefox"));
+            Assert.assertTrue(Files.isSameFile(first, object), "Capture should link to the stored object");
+            Assert.assertTrue(Files.isSameFile(retry, object), "Duplicate should link to the same object");
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    public void testCopiesDoNotShareTheObject() throws IOException {
+        byte[] png = ("png-" + UUID.randomUUID()).getBytes();
+        Path root = newStore();
+        try {
+            Path baseline = root.resolve("baseline").resolve("home.png");
+            ArtifactStore.save(root, png, baseline, "home", "baseline", "chrome", false);
+            Path object = ArtifactStore.objectFor(root, ArtifactStore.lookup(root, "home", "baseline", "chrome"));
+            Assert.assertFalse(Files.isSameFile(baseline, object), "Copy should not link to the stored object");
+
+            // Accepting a new baseline rewrites the file in place; the stored object must keep its bytes
+            Files.write(baseline, "accepted".getBytes());
+            Assert.assertEquals(Files.readAllBytes(object), png);
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    public void testIndexMapsTestStepAndBrowserToHash() throws IOException {
+        Path root = newStore();
+        try {
+            Path dir = root.resolve("screenshots");
+            ArtifactStore.save(root, "old".getBytes(), dir.resolve("a.png"), "search", "results", "chrome", true);
+            ArtifactStore.save(root, "new".getBytes(), dir.resolve("b.png"), "search", "results", "chrome", true);
+            ArtifactStore.save(root, "other".getBytes(), dir.resolve("c.png"), "search", "results", "firefox", true);
+
+            String hash = ArtifactStore.lookup(root, "search", "results", "chrome");
+
+            Assert.assertNotNull(hash);
+            Assert.assertEquals(Files.readAllBytes(ArtifactStore.objectFor(root, hash)), "new".getBytes());
+            Assert.assertNull(ArtifactStore.lookup(root, "search", "results", "edge"));
+        } finally {
+            delete(root);
+        }
+    }
+}
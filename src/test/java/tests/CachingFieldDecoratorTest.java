@@ -0,0 +1,199 @@
+package tests;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import pages.CachingFieldDecorator;
+import pages.LocatorPrefetcher;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uses stub locators and elements, so no browser is needed
+ */
+public class CachingFieldDecoratorTest {
+
+    static class StubPage {
+        @FindBy(id = "button")
+        WebElement button;
+        @FindBy(css = ".item")
+        List<WebElement> items;
+    }
+
+    static class StatsPage {
+        @FindBy(id = "button")
+        WebElement button;
+    }
+
+    // Stub document: lookups are counted, and navigate() makes every element found so far stale
+    static class StubDocument implements ElementLocatorFactory {
+        int lookups;
+        int itemCount = 2;
+        int version;
+
+        WebElement element(String name) {
+            int createdIn = version;
+            return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class},
+                    (proxy, method, args) -> {
+                        if (createdIn != version) {
+                            throw new StaleElementReferenceException(name + " is stale");
+                        }
+                        return "getText".equals(method.getName()) ? name + "@" + version : null;
+                    });
+        }
+
+        void navigate() {
+            version++;
+        }
+
+        @Override
+        public ElementLocator createLocator(Field field) {
+            return new ElementLocator() {
+                @Override
+                public WebElement findElement() {
+                    lookups++;
+                    return element(field.getName());
+                }
+
+                @Override
+                public List<WebElement> findElements() {
+                    lookups++;
+                    List<WebElement> elements = new ArrayList<>();
+                    for (int i = 0; i < itemCount; i++) {
+                        elements.add(element(field.getName() + i));
+                    }
+                    return elements;
+                }
+            };
+        }
+    }
+
+    private StubPage init(StubDocument document) {
+        StubPage page = new StubPage();
+        PageFactory.initElements(new CachingFieldDecorator(document, page), page);
+        return page;
+    }
+
+    @Test
+    public void testRepeatedAccessLooksUpOnce() {
+        StubDocument document = new StubDocument();
+        StubPage page = init(document);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(page.button.getText(), "button@0");
+        }
+        Assert.assertEquals(document.lookups, 1, "Cached element should be looked up once");
+    }
+
+    @Test
+    public void testStaleElementIsLookedUpAgain() {
+        StubDocument document = new StubDocument();
+        StubPage page = init(document);
+        page.button.getText();
+
+        document.navigate();
+        Assert.assertEquals(page.button.getText(), "button@1", "Stale element should be retried on a fresh lookup");
+        Assert.assertEquals(document.lookups, 2);
+    }
+
+    @Test
+    public void testListElementsRetryAfterNavigation() {
+        StubDocument document = new StubDocument();
+        StubPage page = init(document);
+        List<String> texts = new ArrayList<>();
+        for (WebElement item : page.items) {
+            texts.add(item.getText());
+        }
+        Assert.assertEquals(texts, List.of("items0@0", "items1@0"));
+        Assert.assertEquals(page.items.size(), 2);
+        Assert.assertEquals(document.lookups, 2, "Each call on a List field should look up once");
+
+        document.navigate();
+        document.itemCount = 1;
+        Assert.assertEquals(page.items.get(0).getText(), "items0@1");
+        Assert.assertEquals(page.items.size(), 1, "Staleness should drop the cached list");
+        Assert.assertThrows(StaleElementReferenceException.class, () -> {
+            List<WebElement> old = new ArrayList<>(page.items);
+            document.navigate();
+            document.itemCount = 0;
+            old.get(0).getText();
+        });
+    }
+
+    @Test
+    public void testListSizeSeesNewRowsWithoutStaleness() {
+        StubDocument document = new StubDocument();
+        StubPage page = init(document);
+        Assert.assertEquals(page.items.size(), 2);
+
+        document.itemCount = 3;
+        Assert.assertEquals(page.items.size(), 3, "Rows added without navigation should be counted");
+        document.navigate();
+        document.itemCount = 0;
+        Assert.assertTrue(page.items.isEmpty(), "Navigation should be seen without touching an element");
+    }
+
+    @Test
+    public void testEmptyListIsNotCached() {
+        StubDocument document = new StubDocument();
+        document.itemCount = 0;
+        StubPage page = init(document);
+        Assert.assertTrue(page.items.isEmpty());
+
+        document.itemCount = 3;
+        Assert.assertEquals(page.items.size(), 3, "Elements appearing later should be found");
+    }
+
+    @Test
+    public void testPrefetchSeedsAllFieldsInOneScript() {
+        StubDocument document = new StubDocument();
+        StubPage page = new StubPage();
+        CachingFieldDecorator decorator = new CachingFieldDecorator(document, page);
+        PageFactory.initElements(decorator, page);
+        List<Object> scriptArguments = new ArrayList<>();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    scriptArguments.add(((Object[]) args[1])[0]);
+                    return List.of(List.of(document.element("button")),
+                            List.of(document.element("items0"), document.element("items1")));
+                });
+
+        int seeded = LocatorPrefetcher.prefetch(driver, decorator, field -> new Annotations(field).buildBy());
+
+        Assert.assertEquals(seeded, 2);
+        Assert.assertEquals(scriptArguments.size(), 1, "All locators should go in one script call");
+        Assert.assertEquals(scriptArguments.get(0), List.of(List.of("id", "button"), List.of("css selector", ".item")));
+        Assert.assertEquals(page.button.getText(), "button@0");
+        Assert.assertEquals(page.items.size(), 2);
+        Assert.assertEquals(document.lookups, 0, "Prefetched fields should not be looked up again");
+    }
+
+    @Test
+    public void testStatisticsPerPageObject() {
+        StubDocument document = new StubDocument();
+        StatsPage page = new StatsPage();
+        PageFactory.initElements(new CachingFieldDecorator(document, page), page);
+        for (int i = 0; i < 4; i++) {
+            page.button.getText();
+        }
+
+        Map<String, Object> stats = CachingFieldDecorator.getStatistics().get("StatsPage");
+        Assert.assertNotNull(stats);
+        Assert.assertEquals(stats.get("lookups"), 4L);
+        Assert.assertEquals(stats.get("misses"), 1L);
+        Assert.assertEquals((double) stats.get("hitRate"), 0.75, 0.001);
+    }
+}
@@ -1,6 +1,7 @@
 package tests;
 
 import base.BaseTest;
+import base.StartPage;
 import org.openqa.selenium.By;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -17,9 +18,9 @@ public class DataDrivenTest extends BaseTest {
         return DataProviderUtil.getJsonData(path);
     }
 
+    @StartPage("text-box")
     @Test(dataProvider = "jsonData")
     public void testFormSubmission(Map<String, Object> data) {
-        driver.get("https://demoqa.com/text-box");
         driver.findElement(By.id("userName"))
                 .sendKeys(data.get("firstName") + " " + data.get("lastName"));
         driver.findElement(By.id("userEmail"))
@@ -1,20 +1,22 @@
 package tests;
 
 import base.BaseTest;
+import base.StartPage;
+import driver.DriverLifecycle;
+import driver.DriverScope;
 import org.openqa.selenium.Alert;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import pages.ElementsPage;
-import pages.HomePage;
 import utils.WaitUtil;
 import listeners.RetryAnalyzer;
 
+@DriverLifecycle(DriverScope.CLASS)
 public class ElementsFeatureTest extends BaseTest {
 
+    @StartPage("alerts")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testAlerts() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Alerts, Frame & Windows");
         ElementsPage elements = new ElementsPage(driver);
         elements.clickAlertButton();
         Alert alert = driver.switchTo().alert();
@@ -22,19 +24,17 @@ public class ElementsFeatureTest extends BaseTest {
         alert.accept();
     }
 
+    @StartPage("modal-dialogs")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testPopups() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Modal Dialogs");
         ElementsPage elements = new ElementsPage(driver);
         Assert.assertTrue(elements.isModalDisplayed());
         elements.closeModal();
     }
 
+    @StartPage("browser-windows")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testMultipleWindowsTabs() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Alerts, Frame & Windows");
         ElementsPage elements = new ElementsPage(driver);
         elements.openNewTab();
         elements.switchToNewWindow();
@@ -42,10 +42,9 @@ public class ElementsFeatureTest extends BaseTest {
         elements.switchToMainWindow();
     }
 
+    @StartPage("droppable")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testActions() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Interactions");
         ElementsPage elements = new ElementsPage(driver);
         elements.dragAndDrop();
         // Add assertion for droppable state if needed
@@ -53,10 +52,9 @@ public class ElementsFeatureTest extends BaseTest {
         elements.doubleClick();
     }
 
+    @StartPage("select-menu")
     @Test(retryAnalyzer = RetryAnalyzer.class)
     public void testDropDownSelect() {
-        HomePage home = new HomePage(driver);
-        home.clickOnCard("Widgets");
         ElementsPage elements = new ElementsPage(driver);
         elements.selectByVisibleText("Purple");
         elements.selectByValue("4");
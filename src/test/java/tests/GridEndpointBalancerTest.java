@@ -0,0 +1,157 @@
+package tests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import driver.GridEndpointBalancer;
+import driver.RemoteClientConfig;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs against local stub hubs that serve Grid 4 style /status and /session responses,
+ * so no real Grid or browser is needed. Single-threaded because the balancer state is static.
+ */
+@Test(singleThreaded = true)
+public class GridEndpointBalancerTest {
+    private static final String NEW_SESSION_RESPONSE =
+            "{\"value\":{\"sessionId\":\"stub-session\",\"capabilities\":{\"browserName\":\"chrome\"}}}";
+    private static final String REFUSED_RESPONSE =
+            "{\"value\":{\"error\":\"session not created\",\"message\":\"No slots available\",\"stacktrace\":\"\"}}";
+    private static final String UNSUPPORTED_RESPONSE =
+            "{\"value\":{\"error\":\"session not created\",\"message\":\"No nodes support the capabilities in the request\",\"stacktrace\":\"\"}}";
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @BeforeMethod
+    public void setUp() {
+        GridEndpointBalancer.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        servers.forEach(server -> server.stop(0));
+        servers.clear();
+        GridEndpointBalancer.reset();
+    }
+
+    @Test
+    public void testRoutesToHubWithMostFreeSlots() throws IOException {
+        String busyHub = startHub(true, 4, 3, true);
+        String idleHub = startHub(true, 4, 0, true);
+
+        List<String> order = GridEndpointBalancer.selectEndpoints(Arrays.asList(busyHub, idleHub));
+
+        Assert.assertEquals(order, Arrays.asList(idleHub, busyHub), "Hub with more free slots should be tried first");
+    }
+
+    @Test
+    public void testUnreadyAndUnreachableHubsAreRankedLast() throws IOException {
+        String unreadyHub = startHub(false, 4, 0, true);
+        String readyHub = startHub(true, 1, 0, true);
+        String unreachableHub = "http://localhost:1";
+
+        List<String> order = GridEndpointBalancer.selectEndpoints(Arrays.asList(unreadyHub, unreachableHub, readyHub));
+
+        Assert.assertEquals(order, Arrays.asList(readyHub, unreachableHub, unreadyHub));
+    }
+
+    @Test
+    public void testFailsOverWhenHubRefusesSession() throws IOException {
+        String refusingHub = startHub(true, 4, 0, false);
+        String acceptingHub = startHub(true, 2, 0, true);
+
+        WebDriver driver = GridEndpointBalancer.createSession(Arrays.asList(refusingHub, acceptingHub), new ChromeOptions());
+
+        Assert.assertNotNull(driver);
+        Map<String, Map<String, Object>> stats = GridEndpointBalancer.getStatistics();
+        Assert.assertEquals(stats.get(refusingHub).get("refused"), 1);
+        Assert.assertEquals(stats.get(acceptingHub).get("sessions"), 1);
+        Assert.assertEquals(stats.get(acceptingHub).get("active"), 1);
+        Assert.assertTrue(RemoteClientConfig.getSummary().containsKey("POST /session"),
+                "New-session round trip should be recorded by the shared client");
+
+        GridEndpointBalancer.release(driver);
+        Assert.assertEquals(GridEndpointBalancer.getStatistics().get(acceptingHub).get("active"), 0);
+    }
+
+    @Test(expectedExceptions = SessionNotCreatedException.class)
+    public void testThrowsWhenNoHubAcceptsSession() throws IOException {
+        String refusingHub = startHub(true, 4, 0, false);
+
+        GridEndpointBalancer.createSession(Collections.singletonList(refusingHub), new ChromeOptions());
+    }
+
+    @Test
+    public void testUnsupportedCapabilitiesFailWithoutCooldown() throws IOException {
+        String unsupportingHub = startHub(true, 4, 0, UNSUPPORTED_RESPONSE);
+        String acceptingHub = startHub(true, 2, 0, true);
+        List<String> hubs = Arrays.asList(unsupportingHub, acceptingHub);
+
+        try {
+            GridEndpointBalancer.createSession(hubs, new ChromeOptions());
+            Assert.fail("Session with unsupported capabilities should not be created");
+        } catch (SessionNotCreatedException e) {
+            Assert.assertTrue(e.getMessage().contains("No nodes support"), e.getMessage());
+        }
+
+        Map<String, Map<String, Object>> stats = GridEndpointBalancer.getStatistics();
+        Assert.assertEquals(stats.get(unsupportingHub).get("refused"), 0, "Hub should not be put on cooldown");
+        Assert.assertEquals(stats.get(acceptingHub).get("sessions"), 0, "Other hubs should not be tried");
+    }
+
+    private String startHub(boolean ready, int slots, int busySlots, boolean acceptSessions) throws IOException {
+        return startHub(ready, slots, busySlots, acceptSessions ? null : REFUSED_RESPONSE);
+    }
+
+    private String startHub(boolean ready, int slots, int busySlots, String refusal) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/status", exchange -> respond(exchange, 200, statusBody(ready, slots, busySlots)));
+        server.createContext("/session", exchange -> {
+            if (refusal == null) {
+                respond(exchange, 200, NEW_SESSION_RESPONSE);
+            } else {
+                respond(exchange, 500, refusal);
+            }
+        });
+        server.start();
+        servers.add(server);
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private String statusBody(boolean ready, int slots, int busySlots) {
+        StringBuilder slotJson = new StringBuilder();
+        for (int i = 0; i < slots; i++) {
+            if (i > 0) {
+                slotJson.append(',');
+            }
+            slotJson.append("{\"id\":\"slot-").append(i).append("\",\"session\":")
+                    .append(i < busySlots ? "{\"sessionId\":\"busy-" + i + "\"}" : "null").append('}');
+        }
+        return "{\"value\":{\"ready\":" + ready + ",\"message\":\"stub\",\"nodes\":[{\"availability\":\"UP\",\"slots\":["
+                + slotJson + "]}]}}";
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
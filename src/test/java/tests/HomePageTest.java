@@ -4,6 +4,7 @@ import base.BaseTest;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import pages.HomePage;
+import listeners.RetryAnalyzer;
 
 public class HomePageTest extends BaseTest {
     @Test(retryAnalyzer = RetryAnalyzer.class)
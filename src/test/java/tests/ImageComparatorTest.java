@@ -0,0 +1,285 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.BaselineTileIndex;
+import utils.ImageComparator;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the raster comparison against the getRGB definition of a different pixel
+ */
+public class ImageComparatorTest {
+    private static final int[] TYPES = {
+            BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR
+    };
+
+    // Baselines and their sidecar indexes; each test uses its own file name
+    private Path baselines;
+
+    @BeforeClass
+    public void createBaselineDirectory() throws IOException {
+        baselines = Files.createTempDirectory("baseline");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteBaselineDirectory() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(baselines)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(baselines);
+    }
+
+    private static BufferedImage randomImage(int type, int width, int height, long seed) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xFF000000 | random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage source, int type) {
+        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), type);
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                copy.setRGB(x, y, source.getRGB(x, y));
+            }
+        }
+        return copy;
+    }
+
+    private static long countWithGetRgb(BufferedImage a, BufferedImage b) {
+        long different = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    different++;
+                }
+            }
+        }
+        return different;
+    }
+
+    @Test
+    public void testMatchesGetRgbForAllImageTypes() {
+        BufferedImage source = randomImage(BufferedImage.TYPE_INT_RGB, 257, 301, 1);
+        BufferedImage changed = copy(source, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(2);
+        for (int i = 0; i < 500; i++) {
+            changed.setRGB(random.nextInt(257), random.nextInt(301), 0xFF123456);
+        }
+
+        for (int baselineType : TYPES) {
+            for (int actualType : TYPES) {
+                BufferedImage baseline = copy(source, baselineType);
+                BufferedImage actual = copy(changed, actualType);
+                ImageComparator.Result result = ImageComparator.compare(baseline, actual, 0.95, false);
+                Assert.assertEquals(result.getDifferentPixels(), countWithGetRgb(baseline, actual),
+                        "Types " + baselineType + " vs " + actualType);
+                Assert.assertFalse(result.isStoppedEarly());
+            }
+        }
+    }
+
+    @Test
+    public void testIdenticalImagesAreSimilar() {
+        BufferedImage image = randomImage(BufferedImage.TYPE_3BYTE_BGR, 640, 480, 3);
+        ImageComparator.Result result = ImageComparator.compare(image, copy(image, BufferedImage.TYPE_3BYTE_BGR), 0.95);
+        Assert.assertEquals(result.getDifferentPixels(), 0);
+        Assert.assertTrue(result.isSimilar(0.95));
+    }
+
+    @Test
+    public void testStopsEarlyWhenThresholdExceeded() {
+        BufferedImage baseline = randomImage(BufferedImage.TYPE_INT_RGB, 800, 2000, 4);
+        BufferedImage actual = randomImage(BufferedImage.TYPE_INT_RGB, 800, 2000, 5);
+
+        ImageComparator.Result result = ImageComparator.compare(baseline, actual, 0.95);
+
+        Assert.assertTrue(result.isStoppedEarly());
+        Assert.assertFalse(result.isSimilar(0.95));
+        Assert.assertTrue(result.getDifferentPixels() < result.getTotalPixels(), "Not every pixel should be compared");
+    }
+
+    @Test
+    public void testSubImageIsCompared() {
+        BufferedImage image = randomImage(BufferedImage.TYPE_INT_RGB, 300, 300, 6);
+        BufferedImage region = image.getSubimage(50, 50, 100, 100);
+        BufferedImage same = copy(region, BufferedImage.TYPE_INT_RGB);
+
+        Assert.assertEquals(ImageComparator.compare(region, same, 0.95, false).getDifferentPixels(), 0);
+    }
+
+    @Test
+    public void testDiffImageMarksDifferencesRed() {
+        BufferedImage baseline = randomImage(BufferedImage.TYPE_4BYTE_ABGR, 40, 40, 7);
+        BufferedImage actual = copy(baseline, BufferedImage.TYPE_3BYTE_BGR);
+        actual.setRGB(10, 20, 0xFF000000);
+
+        BufferedImage diff = ImageComparator.diffImage(baseline, actual);
+
+        Assert.assertEquals(diff.getRGB(10, 20), 0xFFFF0000);
+        Assert.assertEquals(diff.getRGB(0, 0), baseline.getRGB(0, 0));
+    }
+
+    @Test
+    public void testTileHashesDoNotDependOnLayout() {
+        BufferedImage source = randomImage(BufferedImage.TYPE_INT_RGB, 130, 70, 8);
+        long[] expected = ImageComparator.tileHashes(source, 32);
+        Assert.assertEquals(expected.length, 5 * 3);
+        for (int type : TYPES) {
+            Assert.assertEquals(ImageComparator.tileHashes(copy(source, type), 32), expected, "Type " + type);
+        }
+    }
+
+    @Test
+    public void testChangedTilesCompareLikeFullImage() throws IOException {
+        BufferedImage baseline = randomImage(BufferedImage.TYPE_3BYTE_BGR, 200, 150, 9);
+        BufferedImage actual = copy(baseline, BufferedImage.TYPE_3BYTE_BGR);
+        actual.setRGB(5, 5, 0xFF000000);
+        actual.setRGB(199, 149, 0xFF000000);
+        actual.setRGB(100, 70, 0xFF000000);
+
+        Path baselineFile = baselines.resolve("changed-tiles.png");
+        ImageIO.write(baseline, "png", baselineFile.toFile());
+        BaselineTileIndex index = BaselineTileIndex.load(baselineFile);
+        Assert.assertTrue(Files.exists(baselines.resolve("changed-tiles.tiles.json")), "Sidecar index should be written");
+
+        int[] changed = index.changedTiles(actual);
+        Assert.assertEquals(changed.length, 3);
+        ImageComparator.Result result = ImageComparator.compareTiles(baseline, actual, index.tileSize, changed, 0.95);
+        Assert.assertEquals(result.getDifferentPixels(), countWithGetRgb(baseline, actual));
+        Assert.assertEquals(index.changedTiles(baseline).length, 0);
+    }
+
+    @Test
+    public void testTileIndexRebuiltWhenBaselineChanges() throws IOException {
+        Path baselineFile = baselines.resolve("rebuilt.png");
+        BufferedImage first = randomImage(BufferedImage.TYPE_INT_RGB, 100, 100, 10);
+        ImageIO.write(first, "png", baselineFile.toFile());
+        BaselineTileIndex index = BaselineTileIndex.load(baselineFile);
+
+        BufferedImage second = randomImage(BufferedImage.TYPE_INT_RGB, 100, 100, 11);
+        ImageIO.write(second, "png", baselineFile.toFile());
+        BaselineTileIndex rebuilt = BaselineTileIndex.load(baselineFile);
+
+        Assert.assertNotEquals(rebuilt.baselineSha256, index.baselineSha256);
+        Assert.assertEquals(rebuilt.changedTiles(second).length, 0);
+        Assert.assertEquals(BaselineTileIndex.load(baselineFile).baselineSha256, rebuilt.baselineSha256);
+    }
+
+    @Test
+    public void testSummaryAveragesBlocks() {
+        BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 20; x++) {
+                image.setRGB(x, y, x < 8 ? 0x000000 : 0x00FF40);
+            }
+        }
+        image.setRGB(0, 0, 0xFF0000);
+
+        ImageComparator.Summary summary = ImageComparator.summarize(image, 16, 8);
+        byte[] means = summary.getBlockMeans();
+
+        Assert.assertEquals(means.length, 3 * 2 * 3);
+        Assert.assertEquals(means[0] & 0xFF, Math.round(255 / 64.0));
+        Assert.assertEquals(means[4] & 0xFF, 0xFF);
+        Assert.assertEquals(means[5] & 0xFF, 0x40);
+        Assert.assertEquals(summary.getTileHashes(), ImageComparator.tileHashes(image, 16));
+    }
+
+    @Test
+    public void testPyramidBoundsBracketExactCount() {
+        BufferedImage baseline = randomImage(BufferedImage.TYPE_INT_RGB, 200, 150, 12);
+        Random random = new Random(13);
+        for (int scenario = 0; scenario < 3; scenario++) {
+            BufferedImage actual = copy(baseline, BufferedImage.TYPE_3BYTE_BGR);
+            if (scenario == 0) {
+                actual.setRGB(5, 5, 0xFF000000);
+            } else {
+                int pixels = scenario == 1 ? 3000 : 30000;
+                for (int i = 0; i < pixels; i++) {
+                    actual.setRGB(random.nextInt(200), random.nextInt(150), 0xFF000000 | random.nextInt(0x1000000));
+                }
+            }
+
+            ImageComparator.Summary expected = ImageComparator.summarize(baseline, 32, 8);
+            ImageComparator.Summary found = ImageComparator.summarize(actual, 32, 8);
+            int[] changed = expected.changedTiles(found);
+            long exact = countWithGetRgb(baseline, actual);
+
+            Assert.assertTrue(expected.minDifferentPixels(found, changed) <= exact, "Lower bound, scenario " + scenario);
+            Assert.assertTrue(expected.maxDifferentPixels(changed) >= exact, "Upper bound, scenario " + scenario);
+        }
+    }
+
+    @Test
+    public void testPyramidRejectsDifferentPage() {
+        BufferedImage baseline = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 256; y++) {
+            for (int x = 0; x < 256; x++) {
+                actual.setRGB(x, y, 0xFFFFFF);
+            }
+        }
+
+        ImageComparator.Summary expected = ImageComparator.summarize(baseline, 64, 8);
+        ImageComparator.Summary found = ImageComparator.summarize(actual, 64, 8);
+
+        Assert.assertEquals(expected.minDifferentPixels(found, expected.changedTiles(found)), 256L * 256);
+    }
+
+    @Test
+    public void testTileIndexStoresBlockMeans() throws IOException {
+        Path baselineFile = baselines.resolve("block-means.png");
+        BufferedImage image = randomImage(BufferedImage.TYPE_INT_RGB, 100, 90, 14);
+        ImageIO.write(image, "png", baselineFile.toFile());
+
+        BaselineTileIndex index = BaselineTileIndex.load(baselineFile);
+        ImageComparator.Summary reloaded = BaselineTileIndex.load(baselineFile).summary();
+
+        Assert.assertEquals(reloaded.getBlockMeans(), index.summarize(image).getBlockMeans());
+        Assert.assertEquals(reloaded.getTileHashes(), index.summarize(image).getTileHashes());
+    }
+
+    @Test
+    public void testDiffRegionsGroupNearbyPixels() {
+        BufferedImage baseline = randomImage(BufferedImage.TYPE_INT_RGB, 300, 200, 15);
+        BufferedImage actual = copy(baseline, BufferedImage.TYPE_3BYTE_BGR);
+        // A 20x10 block split by a 5px gap, and a single pixel far away
+        for (int y = 40; y < 50; y++) {
+            for (int x = 30; x < 50; x++) {
+                if (x < 38 || x > 42) {
+                    actual.setRGB(x, y, 0xFF000000);
+                }
+            }
+        }
+        actual.setRGB(250, 180, 0xFFFFFFFF);
+
+        List<ImageComparator.Region> regions = ImageComparator.diffRegions(baseline, actual, 16);
+
+        Assert.assertEquals(regions.size(), 2, regions.toString());
+        ImageComparator.Region block = regions.get(0);
+        Assert.assertEquals(new int[]{block.getX(), block.getY(), block.getWidth(), block.getHeight()}, new int[]{30, 40, 20, 10});
+        Assert.assertEquals(regions.stream().mapToLong(ImageComparator.Region::getDifferentPixels).sum(),
+                countWithGetRgb(baseline, actual));
+        Assert.assertEquals(regions.get(1).getX(), 250);
+        Assert.assertTrue(ImageComparator.diffRegions(baseline, copy(baseline, BufferedImage.TYPE_INT_ARGB), 16).isEmpty());
+    }
+}
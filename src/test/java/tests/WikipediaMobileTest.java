@@ -15,7 +15,7 @@ public class WikipediaMobileTest extends BaseMobileTest {
         WikipediaHomePage homePage = new WikipediaHomePage(driver);
         
         logStep("Verifying app launched successfully");
-        Assert.assertTrue(homePage.isSearchContainerDisplayed(), "Search container should be displayed");
+        Assert.assertTrue(homePage.waitForSearchContainer(), "Search container should be displayed");
         
         logStep("App launch test completed successfully");
     }
@@ -46,7 +46,7 @@ public class WikipediaMobileTest extends BaseMobileTest {
         homePage.searchForArticle("Artificial Intelligence");
         
         logStep("Verifying article is loaded");
-        Assert.assertTrue(homePage.isArticleLoaded(), "Article should be loaded");
+        Assert.assertTrue(homePage.waitForArticle(), "Article should be loaded");
         
         logStep("Getting article title");
         String articleTitle = homePage.getArticleTitle();
@@ -71,7 +71,7 @@ public class WikipediaMobileTest extends BaseMobileTest {
         homePage.searchForArticle("Machine Learning");
         
         logStep("Verifying article is loaded");
-        Assert.assertTrue(homePage.isArticleLoaded(), "Article should be loaded");
+        Assert.assertTrue(homePage.waitForArticle(), "Article should be loaded");
         
         logStep("Bookmarking the article");
         homePage.bookmarkArticle();
@@ -89,7 +89,7 @@ public class WikipediaMobileTest extends BaseMobileTest {
         homePage.searchForArticle("Python programming");
         
         logStep("Verifying article is loaded");
-        Assert.assertTrue(homePage.isArticleLoaded(), "Article should be loaded");
+        Assert.assertTrue(homePage.waitForArticle(), "Article should be loaded");
         
         logStep("Sharing the article");
         homePage.shareArticle();
@@ -158,7 +158,7 @@ public class WikipediaMobileTest extends BaseMobileTest {
             homePage.searchForArticle(searchTerm);
             
             logStep("Verifying search results for: " + searchTerm);
-            Assert.assertTrue(homePage.isArticleLoaded(), "Article should be loaded for: " + searchTerm);
+            Assert.assertTrue(homePage.waitForArticle(), "Article should be loaded for: " + searchTerm);
             
             logStep("Going back to search");
             homePage.goBack();
@@ -200,7 +200,7 @@ public class WikipediaMobileTest extends BaseMobileTest {
         homePage.searchForArticle("Offline functionality");
         
         logStep("Verifying article is loaded");
-        Assert.assertTrue(homePage.isArticleLoaded(), "Article should be loaded");
+        Assert.assertTrue(homePage.waitForArticle(), "Article should be loaded");
         
         logStep("Note: Offline testing requires network simulation");
         logInfo("Offline functionality test completed (network simulation required)");